@@ -0,0 +1,93 @@
+package adudecalledleo.lionutils.benchmark;
+
+import adudecalledleo.lionutils.color.ColorLut;
+import adudecalledleo.lionutils.color.ColorUtil;
+import adudecalledleo.lionutils.color.LinearColorUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ColorUtil}. Works on a 256x256 "texture" worth of colors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorUtilBenchmark {
+    private static final int SIZE = 256 * 256;
+
+    private int[] src1;
+    private int[] src2;
+    private int[] dst;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(0x5EED);
+        src1 = new int[SIZE];
+        src2 = new int[SIZE];
+        dst = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            src1[i] = rand.nextInt();
+            src2[i] = rand.nextInt();
+        }
+    }
+
+    @Benchmark
+    public int[] mixScalar() {
+        for (int i = 0; i < SIZE; i++)
+            dst[i] = ColorUtil.mix(src1[i], src2[i], 0.3f);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] mixBulk() {
+        ColorUtil.mix(src1, 0, src2, 0, dst, 0, SIZE, 0.3f);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] mixFastBulk() {
+        ColorUtil.mixFast(src1, 0, src2, 0, dst, 0, SIZE, 0.3f);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] mixLinearBulk() {
+        LinearColorUtil.mixLinear(src1, 0, src2, 0, dst, 0, SIZE, 0.3f);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] multiplyBulk() {
+        ColorUtil.multiply(src1, 0, dst, 0, SIZE, 0.7f);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] multiplyFastBulk() {
+        ColorUtil.multiplyFast(src1, 0, dst, 0, SIZE, 0.7f);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] invertBulk() {
+        ColorUtil.invert(src1, 0, dst, 0, SIZE);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] grayscaleAverageBulk() {
+        ColorUtil.grayscale(src1, 0, dst, 0, SIZE, ColorUtil.GrayscaleStyle.AVERAGE);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] grayscaleAverageLut() {
+        ColorLut.grayscale(ColorUtil.GrayscaleStyle.AVERAGE).apply(src1, 0, dst, 0, SIZE);
+        return dst;
+    }
+}
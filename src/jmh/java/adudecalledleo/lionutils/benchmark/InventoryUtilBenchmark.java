@@ -0,0 +1,49 @@
+package adudecalledleo.lionutils.benchmark;
+
+import adudecalledleo.lionutils.inventory.InventoryUtil;
+import net.minecraft.Bootstrap;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for slot lookup in {@link InventoryUtil#concat(Inventory...)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InventoryUtilBenchmark {
+    @Param({"4", "16"})
+    public int inventoryCount;
+
+    private Inventory concat;
+    private int size;
+
+    @Setup
+    public void setup() {
+        Bootstrap.initialize();
+        Inventory[] inventories = new Inventory[inventoryCount];
+        for (int i = 0; i < inventoryCount; i++) {
+            SimpleInventory inventory = new SimpleInventory(27);
+            for (int slot = 0; slot < inventory.size(); slot += 2)
+                inventory.setStack(slot, new ItemStack(Items.STONE, slot + 1));
+            inventories[i] = inventory;
+        }
+        concat = InventoryUtil.concat(inventories);
+        size = concat.size();
+    }
+
+    @Benchmark
+    public void getStackAllSlots(Blackhole bh) {
+        for (int slot = 0; slot < size; slot++)
+            bh.consume(concat.getStack(slot));
+    }
+}
@@ -0,0 +1,49 @@
+package adudecalledleo.lionutils.benchmark;
+
+import adudecalledleo.lionutils.item.ItemStackBuilder;
+import net.minecraft.Bootstrap;
+import net.minecraft.enchantment.Enchantments;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.text.LiteralText;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ItemStackBuilder#build()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemStackBuilderBenchmark {
+    private ItemStackBuilder plainBuilder;
+    private ItemStackBuilder fullBuilder;
+
+    @Setup
+    public void setup() {
+        Bootstrap.initialize();
+        plainBuilder = ItemStackBuilder.create().setItem(Items.STONE).setCount(64);
+        fullBuilder = ItemStackBuilder.create()
+                .setItem(Items.DIAMOND_SWORD)
+                .setCustomName(new LiteralText("Benchmark Blade"))
+                .addLore(new LiteralText("Line one"), new LiteralText("Line two"), new LiteralText("Line three"))
+                .addEnchantment(Enchantments.SHARPNESS, 5)
+                .addMaxEnchantment(Enchantments.UNBREAKING)
+                .hideTooltipSections(ItemStack.TooltipSection.ENCHANTMENTS)
+                .unbreakable();
+    }
+
+    @Benchmark
+    public ItemStack buildPlain() {
+        return plainBuilder.build();
+    }
+
+    @Benchmark
+    public ItemStack buildFull() {
+        return fullBuilder.build();
+    }
+}
@@ -0,0 +1,51 @@
+package adudecalledleo.lionutils.benchmark;
+
+import adudecalledleo.lionutils.serialize.NbtUtil;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NbtUtil}'s {@link BlockPos} array codec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NbtUtilBenchmark {
+    private static final String KEY = "positions";
+
+    @Param({"1000", "50000"})
+    public int count;
+
+    private List<BlockPos> posList;
+    private CompoundTag tag;
+
+    @Setup
+    public void setup() {
+        BlockPos[] posArr = new BlockPos[count];
+        for (int i = 0; i < count; i++)
+            posArr[i] = new BlockPos(i & 63, (i >> 6) & 255, i >> 14);
+        posList = Arrays.asList(posArr);
+        tag = new CompoundTag();
+        NbtUtil.putBlockPosArray(tag, KEY, posList);
+    }
+
+    @Benchmark
+    public BlockPos[] getBlockPosArray() {
+        return NbtUtil.getBlockPosArray(tag, KEY);
+    }
+
+    @Benchmark
+    public CompoundTag putBlockPosArray() {
+        CompoundTag out = new CompoundTag();
+        NbtUtil.putBlockPosArray(out, KEY, posList);
+        return out;
+    }
+}
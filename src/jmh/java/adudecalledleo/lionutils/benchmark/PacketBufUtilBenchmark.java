@@ -0,0 +1,57 @@
+package adudecalledleo.lionutils.benchmark;
+
+import adudecalledleo.lionutils.network.PacketBufUtil;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link PacketBufUtil}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketBufUtilBenchmark {
+    private static final int COUNT = 1024;
+
+    private Vec3d[] vectors;
+    private float[] angles;
+    private PacketByteBuf vecBuf;
+    private PacketByteBuf angleBuf;
+
+    @Setup
+    public void setup() {
+        vectors = new Vec3d[COUNT];
+        angles = new float[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            vectors[i] = new Vec3d(i * 0.25, 64 + i * 0.125, -i * 0.5);
+            angles[i] = (i * 7.5f) % 360;
+        }
+        vecBuf = new PacketByteBuf(Unpooled.buffer(COUNT * 24));
+        angleBuf = new PacketByteBuf(Unpooled.buffer(COUNT));
+        for (float angle : angles)
+            PacketBufUtil.writeAngle(angleBuf, angle);
+    }
+
+    @Benchmark
+    public PacketByteBuf writeVec3d() {
+        vecBuf.clear();
+        for (Vec3d vector : vectors)
+            PacketBufUtil.writeVec3d(vecBuf, vector);
+        return vecBuf;
+    }
+
+    @Benchmark
+    public void readAngle(Blackhole bh) {
+        angleBuf.readerIndex(0);
+        for (int i = 0; i < COUNT; i++)
+            bh.consume(PacketBufUtil.readAngle(angleBuf));
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Contains JMH benchmarks for LionUtils' hot paths.<p>
+ * Run them with {@code ./gradlew jmh}. They do not start the game; classes that need registries call
+ * {@code Bootstrap.initialize()} during setup instead.
+ */
+package adudecalledleo.lionutils.benchmark;
@@ -3,8 +3,9 @@ package adudecalledleo.lionutils.client.entity;
 import adudecalledleo.lionutils.InitializerUtil;
 import adudecalledleo.lionutils.RequiresFabricAPI;
 import adudecalledleo.lionutils.entity.EntityUtil;
+import adudecalledleo.lionutils.entity.SpawnPacketFormat;
 import adudecalledleo.lionutils.entity.SpawnPacketUtil;
-import adudecalledleo.lionutils.network.PacketBufUtil;
+import adudecalledleo.lionutils.internal.entity.SpawnPacketCodec;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.network.ClientSidePacketRegistry;
@@ -13,11 +14,8 @@ import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.registry.Registry;
 
-import java.util.UUID;
-
 /**
  * Helper class for dealing with spawn packets on the client-side. To be used with {@link SpawnPacketUtil}.
  *
@@ -39,27 +37,72 @@ public final class ClientSpawnPacketUtil {
      */
     // @author UpcraftLP
     public static void register(Identifier packetID) {
+        register(packetID, SpawnPacketFormat.STANDARD);
+    }
+
+    /**
+     * Registers a handler for an entity spawn packet received from the server, encoded using the specified
+     * format.<br>
+     * Should be used in tandem with {@link SpawnPacketUtil#create(Entity, Identifier, SpawnPacketFormat)} on the
+     * server-side, using the same format.
+     *
+     * @param packetID
+     *         spawn packet ID
+     * @param format
+     *         spawn packet format
+     * @since 7.1.0
+     */
+    public static void register(Identifier packetID, SpawnPacketFormat format) {
+        ClientSidePacketRegistry.INSTANCE.register(packetID, (ctx, byteBuf) -> {
+            SpawnPacketCodec.SpawnData data = SpawnPacketCodec.read(byteBuf, format);
+            ctx.getTaskQueue().execute(() -> spawn(getWorld(), data));
+        });
+    }
+
+    /**
+     * Registers a handler for a batched entity spawn packet received from the server, encoded using the specified
+     * format.<br>
+     * Should be used in tandem with {@link SpawnPacketUtil#registerBatched(EntityType, Identifier,
+     * SpawnPacketFormat)} on the server-side, using the same format.<p>
+     * All entities in a batch are spawned by a single task on the client thread.
+     *
+     * @param packetID
+     *         batched spawn packet ID
+     * @param format
+     *         spawn packet format
+     * @since 7.1.0
+     */
+    public static void registerBatched(Identifier packetID, SpawnPacketFormat format) {
         ClientSidePacketRegistry.INSTANCE.register(packetID, (ctx, byteBuf) -> {
-            EntityType<?> et = Registry.ENTITY_TYPE.get(byteBuf.readVarInt());
-            UUID uuid = byteBuf.readUuid();
-            int entityId = byteBuf.readVarInt();
-            Vec3d pos = PacketBufUtil.readVec3d(byteBuf);
-            float pitch = PacketBufUtil.readAngle(byteBuf);
-            float yaw = PacketBufUtil.readAngle(byteBuf);
+            int count = byteBuf.readVarInt();
+            SpawnPacketCodec.SpawnData[] batch = new SpawnPacketCodec.SpawnData[count];
+            for (int i = 0; i < count; i++)
+                batch[i] = SpawnPacketCodec.read(byteBuf, format);
             ctx.getTaskQueue().execute(() -> {
-                ClientWorld world = MinecraftClient.getInstance().world;
-                if (world == null)
-                    throw new IllegalStateException("Tried to spawn entity in a null world!");
-                Entity e = et.create(world);
-                if (e == null)
-                    throw new IllegalStateException("Failed to create instance of entity \"" + Registry.ENTITY_TYPE.getId(et) + "\"!");
-                EntityUtil.setPos(e, pos);
-                e.pitch = pitch;
-                e.yaw = yaw;
-                e.setEntityId(entityId);
-                e.setUuid(uuid);
-                world.addEntity(entityId, e);
+                ClientWorld world = getWorld();
+                for (SpawnPacketCodec.SpawnData data : batch)
+                    spawn(world, data);
             });
         });
     }
+
+    private static ClientWorld getWorld() {
+        ClientWorld world = MinecraftClient.getInstance().world;
+        if (world == null)
+            throw new IllegalStateException("Tried to spawn entity in a null world!");
+        return world;
+    }
+
+    private static void spawn(ClientWorld world, SpawnPacketCodec.SpawnData data) {
+        Entity e = data.type.create(world);
+        if (e == null)
+            throw new IllegalStateException("Failed to create instance of entity \"" + Registry.ENTITY_TYPE.getId(data.type) + "\"!");
+        EntityUtil.setPos(e, data.pos);
+        e.pitch = data.pitch;
+        e.yaw = data.yaw;
+        e.setEntityId(data.entityId);
+        if (data.uuid != null)
+            e.setUuid(data.uuid);
+        world.addEntity(data.entityId, e);
+    }
 }
@@ -0,0 +1,108 @@
+package adudecalledleo.lionutils.client.network;
+
+import adudecalledleo.lionutils.InitializerUtil;
+import adudecalledleo.lionutils.RequiresFabricAPI;
+import adudecalledleo.lionutils.entity.EntityUtil;
+import adudecalledleo.lionutils.network.EntityMovementSync;
+import adudecalledleo.lionutils.network.PacketBufUtil;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.network.ClientSidePacketRegistry;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static adudecalledleo.lionutils.internal.network.EntityMovementFormat.*;
+
+/**
+ * Helper class for applying entity movement updates on the client-side. To be used with
+ * {@link EntityMovementSync}.
+ *
+ * @since 7.1.0
+ */
+@RequiresFabricAPI
+@Environment(EnvType.CLIENT)
+public final class ClientEntityMovementSync {
+    private ClientEntityMovementSync() {
+        InitializerUtil.utilCtor();
+    }
+
+    private static final class Update {
+        final int entityId;
+        final int flags;
+        final double x, y, z;
+        final short dx, dy, dz;
+        final float pitch, yaw;
+
+        Update(PacketByteBuf byteBuf) {
+            entityId = byteBuf.readVarInt();
+            flags = byteBuf.readUnsignedByte();
+            if ((flags & FLAG_ABSOLUTE) != 0) {
+                x = byteBuf.readDouble();
+                y = byteBuf.readDouble();
+                z = byteBuf.readDouble();
+            } else
+                x = y = z = 0;
+            if ((flags & FLAG_DELTA) != 0) {
+                dx = byteBuf.readShort();
+                dy = byteBuf.readShort();
+                dz = byteBuf.readShort();
+            } else
+                dx = dy = dz = 0;
+            if ((flags & FLAG_ROTATION) != 0) {
+                pitch = PacketBufUtil.readAngle(byteBuf);
+                yaw = PacketBufUtil.readAngle(byteBuf);
+            } else
+                pitch = yaw = 0;
+        }
+
+        void apply(Map<Entity, long[]> bases) {
+            ClientWorld world = MinecraftClient.getInstance().world;
+            if (world == null)
+                return;
+            Entity e = world.getEntityById(entityId);
+            if (e == null)
+                return;
+            if ((flags & FLAG_ABSOLUTE) != 0) {
+                bases.put(e, new long[] { quantize(x), quantize(y), quantize(z) });
+                EntityUtil.setPos(e, x, y, z);
+            } else if ((flags & FLAG_DELTA) != 0) {
+                long[] base = bases.get(e);
+                if (base == null) {
+                    // missed the absolute update, so the best we can do is start from where the entity is now
+                    base = new long[] { quantize(e.getX()), quantize(e.getY()), quantize(e.getZ()) };
+                    bases.put(e, base);
+                }
+                base[0] += dx;
+                base[1] += dy;
+                base[2] += dz;
+                EntityUtil.setPos(e, dequantize(base[0]), dequantize(base[1]), dequantize(base[2]));
+            }
+            if ((flags & FLAG_ROTATION) != 0) {
+                e.pitch = pitch;
+                e.yaw = yaw;
+            }
+        }
+    }
+
+    /**
+     * Registers a handler for an entity movement packet received from the server.<br>
+     * Should be used in tandem with {@link EntityMovementSync#create(Identifier)} on the server-side.
+     *
+     * @param packetID
+     *         movement packet ID
+     */
+    public static void register(Identifier packetID) {
+        // last received position of each entity, only accessed from the client thread
+        final Map<Entity, long[]> bases = new WeakHashMap<>();
+        ClientSidePacketRegistry.INSTANCE.register(packetID, (ctx, byteBuf) -> {
+            Update update = new Update(byteBuf);
+            ctx.getTaskQueue().execute(() -> update.apply(bases));
+        });
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Contains classes used for network operations on the client-side.
+ *
+ * @since 7.1.0
+ */
+package adudecalledleo.lionutils.client.network;
@@ -0,0 +1,215 @@
+package adudecalledleo.lionutils.color;
+
+import java.nio.IntBuffer;
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A precomputed color lookup table.<p>
+ * Building a table evaluates the underlying operation once for every possible component value, after which
+ * {@linkplain #apply(int) applying} it to a color only takes a few table lookups. Tables are immutable and can be
+ * shared freely between threads, so they should be built once and reused (for example, across frames).
+ *
+ * @since 7.1.0
+ */
+public final class ColorLut {
+    private static final ColorLut[] GRAYSCALE_LUTS;
+    private static final ColorLut INVERT_LUT;
+
+    static {
+        ColorUtil.GrayscaleStyle[] styles = ColorUtil.GrayscaleStyle.values();
+        GRAYSCALE_LUTS = new ColorLut[styles.length];
+        for (ColorUtil.GrayscaleStyle style : styles)
+            GRAYSCALE_LUTS[style.ordinal()] = createGrayscale(style);
+        INVERT_LUT = of(comp -> 0xFF - comp, false);
+    }
+
+    // if grayscale, tables hold 16.16 fixed-point weighted component values and alphaTable is null
+    // otherwise, tables hold the resulting component values, already shifted into position
+    private final boolean grayscale;
+    private final int[] redTable, greenTable, blueTable, alphaTable;
+
+    private ColorLut(boolean grayscale, int[] redTable, int[] greenTable, int[] blueTable, int[] alphaTable) {
+        this.grayscale = grayscale;
+        this.redTable = redTable;
+        this.greenTable = greenTable;
+        this.blueTable = blueTable;
+        this.alphaTable = alphaTable;
+    }
+
+    private static ColorLut createGrayscale(ColorUtil.GrayscaleStyle style) {
+        int[] r = new int[256], g = new int[256], b = new int[256];
+        for (int v = 0; v < 256; v++) {
+            r[v] = v * style.redWeight;
+            g[v] = v * style.greenWeight;
+            b[v] = v * style.blueWeight;
+        }
+        return new ColorLut(true, r, g, b, null);
+    }
+
+    /**
+     * Gets a lookup table that converts colors into grayscale.<p>
+     * Produces the same results as {@link ColorUtil#grayscale(int, ColorUtil.GrayscaleStyle)}.
+     *
+     * @param style
+     *         style
+     * @return the lookup table
+     */
+    public static ColorLut grayscale(ColorUtil.GrayscaleStyle style) {
+        Objects.requireNonNull(style, "style == null!");
+        return GRAYSCALE_LUTS[style.ordinal()];
+    }
+
+    /**
+     * Gets a lookup table that inverts colors.<p>
+     * Produces the same results as {@link ColorUtil#invert(int)}.
+     *
+     * @return the lookup table
+     */
+    public static ColorLut invert() {
+        return INVERT_LUT;
+    }
+
+    /**
+     * Creates a lookup table that multiplies colors' red, green and blue components.<p>
+     * Produces the same results as {@link ColorUtil#multiply(int, float)}.
+     *
+     * @param multiplier
+     *         component multiplier
+     * @return the lookup table
+     */
+    public static ColorLut multiply(float multiplier) {
+        return of(comp -> (int) (comp * multiplier), false);
+    }
+
+    /**
+     * Creates a lookup table that modifies colors' red, green, blue and alpha components.<p>
+     * Produces the same results as {@link ColorUtil#modify(int, IntUnaryOperator, boolean)}, as long as the modifier
+     * is a pure function.
+     *
+     * @param modifier
+     *         component modifier
+     * @param modAlpha
+     *         whether to modify the alpha component or not
+     * @return the lookup table
+     */
+    public static ColorLut of(IntUnaryOperator modifier, boolean modAlpha) {
+        Objects.requireNonNull(modifier, "modifier == null!");
+        int[] r = new int[256], g = new int[256], b = new int[256], a = new int[256];
+        for (int v = 0; v < 256; v++) {
+            int mv = modifier.applyAsInt(v);
+            r[v] = ColorUtil.packRed(mv);
+            g[v] = ColorUtil.packGreen(mv);
+            b[v] = ColorUtil.packBlue(mv);
+            a[v] = ColorUtil.packAlpha(modAlpha ? mv : v);
+        }
+        return new ColorLut(false, r, g, b, a);
+    }
+
+    /**
+     * Creates a lookup table that modifies colors' red, green and blue components.
+     *
+     * @param modifier
+     *         component modifier
+     * @return the lookup table
+     *
+     * @see #of(IntUnaryOperator, boolean)
+     */
+    public static ColorLut of(IntUnaryOperator modifier) {
+        return of(modifier, false);
+    }
+
+    /**
+     * Creates a lookup table that modifies colors' red, green, blue and alpha components.<p>
+     * Produces the same results as {@link ColorUtil#modify(int, ColorUtil.ComponentModifier)}, as long as the
+     * modifier is a pure function.
+     *
+     * @param modifier
+     *         component modifier
+     * @return the lookup table
+     */
+    public static ColorLut of(ColorUtil.ComponentModifier modifier) {
+        Objects.requireNonNull(modifier, "modifier == null!");
+        int[] r = new int[256], g = new int[256], b = new int[256], a = new int[256];
+        for (int v = 0; v < 256; v++) {
+            r[v] = ColorUtil.packRed(modifier.modify(ColorUtil.Component.RED, v));
+            g[v] = ColorUtil.packGreen(modifier.modify(ColorUtil.Component.GREEN, v));
+            b[v] = ColorUtil.packBlue(modifier.modify(ColorUtil.Component.BLUE, v));
+            a[v] = ColorUtil.packAlpha(modifier.modify(ColorUtil.Component.ALPHA, v));
+        }
+        return new ColorLut(false, r, g, b, a);
+    }
+
+    private int applyGrayscale(int color) {
+        int v = (redTable[(color >> 16) & 0xFF] + greenTable[(color >> 8) & 0xFF] + blueTable[color & 0xFF]) >>> 16;
+        return color & 0xFF000000 | v * 0x010101;
+    }
+
+    private int applyComponents(int color) {
+        return redTable[(color >> 16) & 0xFF] | greenTable[(color >> 8) & 0xFF] | blueTable[color & 0xFF]
+                | alphaTable[color >>> 24];
+    }
+
+    /**
+     * Remaps a color using this lookup table.
+     *
+     * @param color
+     *         original color
+     * @return the remapped color
+     */
+    public int apply(int color) {
+        return grayscale ? applyGrayscale(color) : applyComponents(color);
+    }
+
+    /**
+     * Remaps a range of colors using this lookup table.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to remap
+     */
+    public void apply(int[] src, int srcOff, int[] dst, int dstOff, int length) {
+        ColorUtil.checkRange(src.length, srcOff, length);
+        ColorUtil.checkRange(dst.length, dstOff, length);
+        if (grayscale) {
+            for (int i = 0; i < length; i++)
+                dst[dstOff + i] = applyGrayscale(src[srcOff + i]);
+        } else {
+            for (int i = 0; i < length; i++)
+                dst[dstOff + i] = applyComponents(src[srcOff + i]);
+        }
+    }
+
+    /**
+     * Remaps a range of colors using this lookup table.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to remap
+     */
+    public void apply(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length) {
+        ColorUtil.checkRange(src.limit(), srcOff, length);
+        ColorUtil.checkRange(dst.limit(), dstOff, length);
+        if (grayscale) {
+            for (int i = 0; i < length; i++)
+                dst.put(dstOff + i, applyGrayscale(src.get(srcOff + i)));
+        } else {
+            for (int i = 0; i < length; i++)
+                dst.put(dstOff + i, applyComponents(src.get(srcOff + i)));
+        }
+    }
+}
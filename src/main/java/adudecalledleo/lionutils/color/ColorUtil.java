@@ -2,10 +2,13 @@ package adudecalledleo.lionutils.color;
 
 import adudecalledleo.lionutils.InitializerUtil;
 
+import java.nio.IntBuffer;
 import java.util.function.IntUnaryOperator;
 
 /**
- * Helper class for dealing with colors.
+ * Helper class for dealing with colors.<p>
+ * Most operations also have bulk variants that work on a range of an {@code int[]} or {@link IntBuffer}, which should
+ * be preferred when processing many colors at once (for example, all pixels of a texture).
  *
  * @since 6.0.0
  */
@@ -106,25 +109,27 @@ public final class ColorUtil {
     }
 
     /**
-     * Unpacks the red component from a color.
+     * Unpacks the red component from a color.<p>
+     * Before 7.1.0, this always returned 0.
      *
      * @param color
      *         source color
      * @return the red component
      */
     public static int unpackRed(int color) {
-        return (color << 16) & 0xFF;
+        return (color >> 16) & 0xFF;
     }
 
     /**
-     * Unpacks the green component from a color.
+     * Unpacks the green component from a color.<p>
+     * Before 7.1.0, this always returned 0.
      *
      * @param color
      *         source color
      * @return the green component
      */
     public static int unpackGreen(int color) {
-        return (color << 8) & 0xFF;
+        return (color >> 8) & 0xFF;
     }
 
     /**
@@ -139,14 +144,15 @@ public final class ColorUtil {
     }
 
     /**
-     * Unpacks the alpha component from a color.
+     * Unpacks the alpha component from a color.<p>
+     * Before 7.1.0, this always returned 0.
      *
      * @param color
      *         color
      * @return the alpha component
      */
     public static int unpackAlpha(int color) {
-        return (color << 24) & 0xFF;
+        return (color >>> 24) & 0xFF;
     }
 
     /**
@@ -165,6 +171,132 @@ public final class ColorUtil {
         };
     }
 
+    /**
+     * Unpacks a color into its individual components, writing them to an existing array.
+     *
+     * @param color
+     *         source color
+     * @param dst
+     *         destination array, receives the components in RGBA order
+     * @param offset
+     *         index to start writing at
+     * @return the destination array
+     *
+     * @since 7.1.0
+     */
+    public static int[] unpackInto(int color, int[] dst, int offset) {
+        checkRange(dst.length, offset, 4);
+        dst[offset] = unpackRed(color);
+        dst[offset + 1] = unpackGreen(color);
+        dst[offset + 2] = unpackBlue(color);
+        dst[offset + 3] = unpackAlpha(color);
+        return dst;
+    }
+
+    /**
+     * Packs a color from an array of components.
+     *
+     * @param comps
+     *         the components in RGBA order
+     * @param offset
+     *         index of the red component
+     * @return the resulting color
+     *
+     * @since 7.1.0
+     */
+    public static int pack(int[] comps, int offset) {
+        checkRange(comps.length, offset, 4);
+        return pack(comps[offset], comps[offset + 1], comps[offset + 2], comps[offset + 3]);
+    }
+
+    /**
+     * Unpacks a range of colors into planar form.<p>
+     * The destination receives 4 consecutive planes of {@code length} bytes each, starting at {@code planesOff}: all
+     * of the red components, then all of the green components, then blue, then alpha.
+     *
+     * @param colors
+     *         source colors
+     * @param colorsOff
+     *         offset of first source color
+     * @param rgbaPlanes
+     *         destination planes
+     * @param planesOff
+     *         offset of the start of the red plane
+     * @param length
+     *         number of colors to unpack
+     * @since 7.1.0
+     */
+    public static void unpackAll(int[] colors, int colorsOff, byte[] rgbaPlanes, int planesOff, int length) {
+        checkRange(colors.length, colorsOff, length);
+        if (length > Integer.MAX_VALUE / 4)
+            throw new IllegalArgumentException("length is too large: " + length);
+        checkRange(rgbaPlanes.length, planesOff, length * 4);
+        final int gOff = planesOff + length, bOff = gOff + length, aOff = bOff + length;
+        for (int i = 0; i < length; i++) {
+            int c = colors[colorsOff + i];
+            rgbaPlanes[planesOff + i] = (byte) (c >> 16);
+            rgbaPlanes[gOff + i] = (byte) (c >> 8);
+            rgbaPlanes[bOff + i] = (byte) c;
+            rgbaPlanes[aOff + i] = (byte) (c >>> 24);
+        }
+    }
+
+    /**
+     * Unpacks colors into planar form.
+     *
+     * @param colors
+     *         source colors
+     * @param rgbaPlanes
+     *         destination planes, must be at least 4 times as long as {@code colors}
+     * @see #unpackAll(int[], int, byte[], int, int)
+     * @since 7.1.0
+     */
+    public static void unpackAll(int[] colors, byte[] rgbaPlanes) {
+        unpackAll(colors, 0, rgbaPlanes, 0, colors.length);
+    }
+
+    /**
+     * Packs a range of colors from planar form. This is the inverse of
+     * {@link #unpackAll(int[], int, byte[], int, int)}.
+     *
+     * @param rgbaPlanes
+     *         source planes
+     * @param planesOff
+     *         offset of the start of the red plane
+     * @param colors
+     *         destination colors
+     * @param colorsOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to pack
+     * @since 7.1.0
+     */
+    public static void packAll(byte[] rgbaPlanes, int planesOff, int[] colors, int colorsOff, int length) {
+        checkRange(colors.length, colorsOff, length);
+        if (length > Integer.MAX_VALUE / 4)
+            throw new IllegalArgumentException("length is too large: " + length);
+        checkRange(rgbaPlanes.length, planesOff, length * 4);
+        final int gOff = planesOff + length, bOff = gOff + length, aOff = bOff + length;
+        for (int i = 0; i < length; i++) {
+            colors[colorsOff + i] = pack(rgbaPlanes[planesOff + i], rgbaPlanes[gOff + i], rgbaPlanes[bOff + i],
+                    rgbaPlanes[aOff + i]);
+        }
+    }
+
+    /**
+     * Packs colors from planar form.
+     *
+     * @param rgbaPlanes
+     *         source planes, must be at least 4 times as long as {@code colors}
+     * @param colors
+     *         destination colors
+     * @see #packAll(byte[], int, int[], int, int)
+     * @since 7.1.0
+     */
+    public static void packAll(byte[] rgbaPlanes, int[] colors) {
+        packAll(rgbaPlanes, 0, colors, 0, colors.length);
+    }
+
     /**
      * Represents a color component.
      */
@@ -347,18 +479,25 @@ public final class ColorUtil {
      * @return the multiplied color
      */
     public static int multiply(int orig, float multiplier) {
-        return modify(orig, comp -> (int) (comp * multiplier));
+        int r = (int) (unpackRed(orig) * multiplier);
+        int g = (int) (unpackGreen(orig) * multiplier);
+        int b = (int) (unpackBlue(orig) * multiplier);
+        return pack(r, g, b, unpackAlpha(orig));
     }
 
     /**
-     * Inverts a color.
+     * Inverts a color.<p>
+     * Each of the red, green and blue components {@code c} becomes {@code 255 - c}. The alpha component is kept as
+     * is.<br>
+     * Before 7.1.0, each component was negated and wrapped instead, becoming {@code 256 - c} (so 0 stayed 0), and the
+     * red and green components always came out as 0.
      *
      * @param orig
      *         original color
      * @return the inverted color
      */
     public static int invert(int orig) {
-        return modify(orig, comp -> -comp);
+        return orig ^ 0x00FFFFFF;
     }
 
     /**
@@ -368,19 +507,41 @@ public final class ColorUtil {
         /**
          * Use the red component's value.
          */
-        RED,
+        RED(0x10000, 0, 0),
         /**
          * Use the green component's value.
          */
-        GREEN,
+        GREEN(0, 0x10000, 0),
         /**
          * Use the blue component's value.
          */
-        BLUE,
+        BLUE(0, 0, 0x10000),
         /**
          * Use the average of the red, green and blue components' values.
          */
-        AVERAGE
+        AVERAGE(21846, 21846, 21846),
+        /**
+         * Use the luma of the color, as defined by ITU-R BT.601 (0.299 R + 0.587 G + 0.114 B).
+         *
+         * @since 7.1.0
+         */
+        LUMA_601(19595, 38470, 7471),
+        /**
+         * Use the luma of the color, as defined by ITU-R BT.709 (0.2126 R + 0.7152 G + 0.0722 B).
+         *
+         * @since 7.1.0
+         */
+        LUMA_709(13933, 46871, 4732);
+
+        // weights in 16.16 fixed point
+        // AVERAGE rounds 1/3 up, so the result is still exactly (r + g + b) / 3 for all 8-bit inputs
+        final int redWeight, greenWeight, blueWeight;
+
+        GrayscaleStyle(int redWeight, int greenWeight, int blueWeight) {
+            this.redWeight = redWeight;
+            this.greenWeight = greenWeight;
+            this.blueWeight = blueWeight;
+        }
     }
 
     /**
@@ -391,35 +552,24 @@ public final class ColorUtil {
      * @param style
      *         style
      * @return the grayscale color
+     *
+     * @see ColorLut#grayscale(GrayscaleStyle)
      */
     public static int grayscale(int orig, GrayscaleStyle style) {
-        int v = 0;
-        switch (style) {
-        case RED:
-            v = unpackRed(orig);
-            break;
-        case GREEN:
-            v = unpackGreen(orig);
-            break;
-        case BLUE:
-            v = unpackBlue(orig);
-            break;
-        case AVERAGE:
-            v = unpackRed(orig);
-            v += unpackGreen(orig);
-            v += unpackBlue(orig);
-            v = (int) (v / 3f);
-            break;
-        }
+        int v = (unpackRed(orig) * style.redWeight
+                + unpackGreen(orig) * style.greenWeight
+                + unpackBlue(orig) * style.blueWeight) >>> 16;
         return pack(v, v, v, unpackAlpha(orig));
     }
 
-    private static int mix0(Component comp, int c1, int c2, float bias) {
-        return (int) (comp.unpack(c1) * bias + comp.unpack(c2) * (1 - bias));
+    private static int mix0(int v1, int v2, float bias) {
+        return (int) (v1 * (1 - bias) + v2 * bias);
     }
 
     /**
-     * Mixes two colors together. Ignores alpha values and returns an opaque color (alpha = 255).
+     * Mixes two colors together. Ignores alpha values and returns an opaque color (alpha = 255).<p>
+     * Before 7.1.0, the bias was applied the other way around (0 meant the second color and 1 meant the first color,
+     * contrary to the documentation below), and the red and green components of both colors were read as 0.
      *
      * @param c1
      *         first color to mix
@@ -432,9 +582,755 @@ public final class ColorUtil {
      * @since 6.1.0
      */
     public static int mix(int c1, int c2, float bias) {
-        int r = mix0(Component.RED, c1, c2, bias);
-        int g = mix0(Component.GREEN, c1, c2, bias);
-        int b = mix0(Component.BLUE, c1, c2, bias);
+        int r = mix0(unpackRed(c1), unpackRed(c2), bias);
+        int g = mix0(unpackGreen(c1), unpackGreen(c2), bias);
+        int b = mix0(unpackBlue(c1), unpackBlue(c2), bias);
         return pack(r, g, b, 0xFF);
     }
+
+    static void checkRange(int capacity, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > capacity - length)
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + offset + " + " + length
+                    + ") is out of bounds for length " + capacity);
+    }
+
+    /**
+     * Modifies a range of colors' red, green, blue and alpha components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to modify
+     * @param modifier
+     *         component modifier
+     * @param modAlpha
+     *         whether to modify the alpha component or not
+     * @see #modify(int, IntUnaryOperator, boolean)
+     * @since 7.1.0
+     */
+    public static void modify(int[] src, int srcOff, int[] dst, int dstOff, int length, IntUnaryOperator modifier,
+            boolean modAlpha) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = modify(src[srcOff + i], modifier, modAlpha);
+    }
+
+    /**
+     * Modifies a range of colors' red, green, blue and alpha components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to modify
+     * @param modifier
+     *         component modifier
+     * @param modAlpha
+     *         whether to modify the alpha component or not
+     * @see #modify(int, IntUnaryOperator, boolean)
+     * @since 7.1.0
+     */
+    public static void modify(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length,
+            IntUnaryOperator modifier, boolean modAlpha) {
+        checkRange(src.limit(), srcOff, length);
+        checkRange(dst.limit(), dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, modify(src.get(srcOff + i), modifier, modAlpha));
+    }
+
+    /**
+     * Modifies a range of colors' red, green, blue and alpha components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to modify
+     * @param modifier
+     *         component modifier
+     * @see #modify(int, ComponentModifier)
+     * @since 7.1.0
+     */
+    public static void modify(int[] src, int srcOff, int[] dst, int dstOff, int length,
+            ComponentModifier modifier) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = modify(src[srcOff + i], modifier);
+    }
+
+    /**
+     * Modifies a range of colors' red, green, blue and alpha components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to modify
+     * @param modifier
+     *         component modifier
+     * @see #modify(int, ComponentModifier)
+     * @since 7.1.0
+     */
+    public static void modify(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length,
+            ComponentModifier modifier) {
+        checkRange(src.limit(), srcOff, length);
+        checkRange(dst.limit(), dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, modify(src.get(srcOff + i), modifier));
+    }
+
+    /**
+     * Multiplies a range of colors' red, green and blue components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to multiply
+     * @param multiplier
+     *         component multiplier
+     * @see #multiply(int, float)
+     * @since 7.1.0
+     */
+    public static void multiply(int[] src, int srcOff, int[] dst, int dstOff, int length, float multiplier) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = multiply(src[srcOff + i], multiplier);
+    }
+
+    /**
+     * Multiplies a range of colors' red, green and blue components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to multiply
+     * @param multiplier
+     *         component multiplier
+     * @see #multiply(int, float)
+     * @since 7.1.0
+     */
+    public static void multiply(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length, float multiplier) {
+        checkRange(src.limit(), srcOff, length);
+        checkRange(dst.limit(), dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, multiply(src.get(srcOff + i), multiplier));
+    }
+
+    /**
+     * Inverts a range of colors.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to invert
+     * @see #invert(int)
+     * @since 7.1.0
+     */
+    public static void invert(int[] src, int srcOff, int[] dst, int dstOff, int length) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = invert(src[srcOff + i]);
+    }
+
+    /**
+     * Inverts a range of colors.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to invert
+     * @see #invert(int)
+     * @since 7.1.0
+     */
+    public static void invert(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length) {
+        checkRange(src.limit(), srcOff, length);
+        checkRange(dst.limit(), dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, invert(src.get(srcOff + i)));
+    }
+
+    /**
+     * Converts a range of colors into grayscale.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to convert
+     * @param style
+     *         style
+     * @see #grayscale(int, GrayscaleStyle)
+     * @since 7.1.0
+     */
+    public static void grayscale(int[] src, int srcOff, int[] dst, int dstOff, int length, GrayscaleStyle style) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = grayscale(src[srcOff + i], style);
+    }
+
+    /**
+     * Converts a range of colors into grayscale.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to convert
+     * @param style
+     *         style
+     * @see #grayscale(int, GrayscaleStyle)
+     * @since 7.1.0
+     */
+    public static void grayscale(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length,
+            GrayscaleStyle style) {
+        checkRange(src.limit(), srcOff, length);
+        checkRange(dst.limit(), dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, grayscale(src.get(srcOff + i), style));
+    }
+
+    /**
+     * Mixes two ranges of colors together. Ignores alpha values and produces opaque colors (alpha = 255).
+     *
+     * @param src1
+     *         first colors to mix
+     * @param src1Off
+     *         offset of first color in {@code src1}
+     * @param src2
+     *         second colors to mix
+     * @param src2Off
+     *         offset of first color in {@code src2}
+     * @param dst
+     *         destination colors (may be the same array as {@code src1} or {@code src2})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color
+     * @see #mix(int, int, float)
+     * @since 7.1.0
+     */
+    public static void mix(int[] src1, int src1Off, int[] src2, int src2Off, int[] dst, int dstOff, int length,
+            float bias) {
+        checkRange(src1.length, src1Off, length);
+        checkRange(src2.length, src2Off, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = mix(src1[src1Off + i], src2[src2Off + i], bias);
+    }
+
+    /**
+     * Mixes two ranges of colors together. Ignores alpha values and produces opaque colors (alpha = 255).
+     *
+     * @param src1
+     *         first colors to mix
+     * @param src1Off
+     *         index of first color in {@code src1}
+     * @param src2
+     *         second colors to mix
+     * @param src2Off
+     *         index of first color in {@code src2}
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src1} or {@code src2})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color
+     * @see #mix(int, int, float)
+     * @since 7.1.0
+     */
+    public static void mix(IntBuffer src1, int src1Off, IntBuffer src2, int src2Off, IntBuffer dst, int dstOff,
+            int length, float bias) {
+        checkRange(src1.limit(), src1Off, length);
+        checkRange(src2.limit(), src2Off, length);
+        checkRange(dst.limit(), dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, mix(src1.get(src1Off + i), src2.get(src2Off + i), bias));
+    }
+
+    private static int toFixed8(float f) {
+        if (f <= 0)
+            return 0;
+        if (f >= 1)
+            return 0x100;
+        return (int) (f * 0x100 + 0.5f);
+    }
+
+    private static int mixFast0(int c1, int c2, int w) {
+        int iw = 0x100 - w;
+        int rb = ((c1 & 0xFF00FF) * iw + (c2 & 0xFF00FF) * w) >>> 8;
+        int g = ((c1 & 0x00FF00) * iw + (c2 & 0x00FF00) * w) >>> 8;
+        return 0xFF000000 | rb & 0xFF00FF | g & 0x00FF00;
+    }
+
+    private static int multiplyFast0(int orig, int m) {
+        int rb = ((orig & 0xFF00FF) * m) >>> 8;
+        int g = ((orig & 0x00FF00) * m) >>> 8;
+        return orig & 0xFF000000 | rb & 0xFF00FF | g & 0x00FF00;
+    }
+
+    /**
+     * Mixes two colors together. Ignores alpha values and returns an opaque color (alpha = 255).<p>
+     * Unlike {@link #mix(int, int, float)}, this blends the red and blue components in a single integer operation
+     * using an 8-bit fixed-point bias, and does no floating-point math per component. The result is within &plusmn;1
+     * of {@code mix} for every component.
+     *
+     * @param c1
+     *         first color to mix
+     * @param c2
+     *         second color to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color (clamped to [0, 1])
+     * @return the mixed color
+     *
+     * @since 7.1.0
+     */
+    public static int mixFast(int c1, int c2, float bias) {
+        return mixFast0(c1, c2, toFixed8(bias));
+    }
+
+    /**
+     * Multiplies a color's red, green and blue components.<p>
+     * Unlike {@link #multiply(int, float)}, this scales the red and blue components in a single integer operation
+     * using an 8-bit fixed-point multiplier, and does no floating-point math per component. The result is within
+     * &plusmn;1 of {@code multiply} for every component.
+     *
+     * @param orig
+     *         original color
+     * @param multiplier
+     *         component multiplier (clamped to [0, 1])
+     * @return the multiplied color
+     *
+     * @since 7.1.0
+     */
+    public static int multiplyFast(int orig, float multiplier) {
+        return multiplyFast0(orig, toFixed8(multiplier));
+    }
+
+    /**
+     * Mixes two ranges of colors together. Ignores alpha values and produces opaque colors (alpha = 255).
+     *
+     * @param src1
+     *         first colors to mix
+     * @param src1Off
+     *         offset of first color in {@code src1}
+     * @param src2
+     *         second colors to mix
+     * @param src2Off
+     *         offset of first color in {@code src2}
+     * @param dst
+     *         destination colors (may be the same array as {@code src1} or {@code src2})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color (clamped to [0, 1])
+     * @see #mixFast(int, int, float)
+     * @since 7.1.0
+     */
+    public static void mixFast(int[] src1, int src1Off, int[] src2, int src2Off, int[] dst, int dstOff, int length,
+            float bias) {
+        checkRange(src1.length, src1Off, length);
+        checkRange(src2.length, src2Off, length);
+        checkRange(dst.length, dstOff, length);
+        final int w = toFixed8(bias);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = mixFast0(src1[src1Off + i], src2[src2Off + i], w);
+    }
+
+    /**
+     * Mixes two ranges of colors together. Ignores alpha values and produces opaque colors (alpha = 255).
+     *
+     * @param src1
+     *         first colors to mix
+     * @param src1Off
+     *         index of first color in {@code src1}
+     * @param src2
+     *         second colors to mix
+     * @param src2Off
+     *         index of first color in {@code src2}
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src1} or {@code src2})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color (clamped to [0, 1])
+     * @see #mixFast(int, int, float)
+     * @since 7.1.0
+     */
+    public static void mixFast(IntBuffer src1, int src1Off, IntBuffer src2, int src2Off, IntBuffer dst, int dstOff,
+            int length, float bias) {
+        checkRange(src1.limit(), src1Off, length);
+        checkRange(src2.limit(), src2Off, length);
+        checkRange(dst.limit(), dstOff, length);
+        final int w = toFixed8(bias);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, mixFast0(src1.get(src1Off + i), src2.get(src2Off + i), w));
+    }
+
+    /**
+     * Multiplies a range of colors' red, green and blue components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to multiply
+     * @param multiplier
+     *         component multiplier (clamped to [0, 1])
+     * @see #multiplyFast(int, float)
+     * @since 7.1.0
+     */
+    public static void multiplyFast(int[] src, int srcOff, int[] dst, int dstOff, int length, float multiplier) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        final int m = toFixed8(multiplier);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = multiplyFast0(src[srcOff + i], m);
+    }
+
+    /**
+     * Multiplies a range of colors' red, green and blue components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to multiply
+     * @param multiplier
+     *         component multiplier (clamped to [0, 1])
+     * @see #multiplyFast(int, float)
+     * @since 7.1.0
+     */
+    public static void multiplyFast(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length,
+            float multiplier) {
+        checkRange(src.limit(), srcOff, length);
+        checkRange(dst.limit(), dstOff, length);
+        final int m = toFixed8(multiplier);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, multiplyFast0(src.get(srcOff + i), m));
+    }
+
+    private static float hue(float r, float g, float b, float max, float delta) {
+        if (delta == 0)
+            return 0;
+        float h;
+        if (max == r)
+            h = (g - b) / delta;
+        else if (max == g)
+            h = (b - r) / delta + 2;
+        else
+            h = (r - g) / delta + 4;
+        h *= 60;
+        return h < 0 ? h + 360 : h;
+    }
+
+    private static int fromChroma(float h, float c, float m, int a) {
+        h %= 360;
+        if (h < 0)
+            h += 360;
+        float hp = h / 60;
+        float x = c * (1 - Math.abs(hp % 2 - 1));
+        float r, g, b;
+        switch ((int) hp) {
+        case 0:
+            r = c;
+            g = x;
+            b = 0;
+            break;
+        case 1:
+            r = x;
+            g = c;
+            b = 0;
+            break;
+        case 2:
+            r = 0;
+            g = c;
+            b = x;
+            break;
+        case 3:
+            r = 0;
+            g = x;
+            b = c;
+            break;
+        case 4:
+            r = x;
+            g = 0;
+            b = c;
+            break;
+        default:
+            r = c;
+            g = 0;
+            b = x;
+            break;
+        }
+        return pack(Math.round((r + m) * 255), Math.round((g + m) * 255), Math.round((b + m) * 255), a);
+    }
+
+    private static float clamp01(float f) {
+        return f < 0 ? 0 : (f > 1 ? 1 : f);
+    }
+
+    /**
+     * Converts a color to HSV (hue, saturation, value).<p>
+     * Writes three values to {@code dst}, starting at {@code offset}: the hue in degrees ([0, 360)), followed by the
+     * saturation and value ([0, 1]). The alpha component is ignored.
+     *
+     * @param color
+     *         source color
+     * @param dst
+     *         destination array
+     * @param offset
+     *         index to start writing at
+     * @return the destination array
+     *
+     * @since 7.1.0
+     */
+    public static float[] toHsv(int color, float[] dst, int offset) {
+        float r = unpackRed(color) / 255f, g = unpackGreen(color) / 255f, b = unpackBlue(color) / 255f;
+        float max = Math.max(r, Math.max(g, b));
+        float delta = max - Math.min(r, Math.min(g, b));
+        dst[offset] = hue(r, g, b, max, delta);
+        dst[offset + 1] = max == 0 ? 0 : delta / max;
+        dst[offset + 2] = max;
+        return dst;
+    }
+
+    /**
+     * Converts HSV (hue, saturation, value) to a color.
+     *
+     * @param h
+     *         hue in degrees (wrapped to [0, 360))
+     * @param s
+     *         saturation (clamped to [0, 1])
+     * @param v
+     *         value (clamped to [0, 1])
+     * @param a
+     *         the alpha component
+     * @return the resulting color
+     *
+     * @since 7.1.0
+     */
+    public static int fromHsv(float h, float s, float v, int a) {
+        s = clamp01(s);
+        v = clamp01(v);
+        float c = v * s;
+        return fromChroma(h, c, v - c, a);
+    }
+
+    /**
+     * Converts a color to HSL (hue, saturation, lightness).<p>
+     * Writes three values to {@code dst}, starting at {@code offset}: the hue in degrees ([0, 360)), followed by the
+     * saturation and lightness ([0, 1]). The alpha component is ignored.
+     *
+     * @param color
+     *         source color
+     * @param dst
+     *         destination array
+     * @param offset
+     *         index to start writing at
+     * @return the destination array
+     *
+     * @since 7.1.0
+     */
+    public static float[] toHsl(int color, float[] dst, int offset) {
+        float r = unpackRed(color) / 255f, g = unpackGreen(color) / 255f, b = unpackBlue(color) / 255f;
+        float max = Math.max(r, Math.max(g, b));
+        float min = Math.min(r, Math.min(g, b));
+        float delta = max - min;
+        float l = (max + min) / 2;
+        dst[offset] = hue(r, g, b, max, delta);
+        dst[offset + 1] = delta == 0 ? 0 : delta / (1 - Math.abs(2 * l - 1));
+        dst[offset + 2] = l;
+        return dst;
+    }
+
+    /**
+     * Converts HSL (hue, saturation, lightness) to a color.
+     *
+     * @param h
+     *         hue in degrees (wrapped to [0, 360))
+     * @param s
+     *         saturation (clamped to [0, 1])
+     * @param l
+     *         lightness (clamped to [0, 1])
+     * @param a
+     *         the alpha component
+     * @return the resulting color
+     *
+     * @since 7.1.0
+     */
+    public static int fromHsl(float h, float s, float l, int a) {
+        s = clamp01(s);
+        l = clamp01(l);
+        float c = (1 - Math.abs(2 * l - 1)) * s;
+        return fromChroma(h, c, l - c / 2, a);
+    }
+
+    /**
+     * Rotates a color's hue. Preserves the alpha component.
+     *
+     * @param orig
+     *         original color
+     * @param degrees
+     *         amount to rotate hue by, in degrees
+     * @return the rotated color
+     *
+     * @since 7.1.0
+     */
+    public static int rotateHue(int orig, float degrees) {
+        float r = unpackRed(orig) / 255f, g = unpackGreen(orig) / 255f, b = unpackBlue(orig) / 255f;
+        float max = Math.max(r, Math.max(g, b));
+        float delta = max - Math.min(r, Math.min(g, b));
+        if (delta == 0)
+            return orig; // gray, hue doesn't matter
+        return fromChroma(hue(r, g, b, max, delta) + degrees, delta, max - delta, unpackAlpha(orig));
+    }
+
+    /**
+     * Multiplies a color's saturation (in HSV space). Preserves the alpha component.
+     *
+     * @param orig
+     *         original color
+     * @param factor
+     *         saturation multiplier, where 0 results in a gray color and values above 1 make the color more vivid
+     * @return the saturated color
+     *
+     * @since 7.1.0
+     */
+    public static int saturate(int orig, float factor) {
+        float r = unpackRed(orig) / 255f, g = unpackGreen(orig) / 255f, b = unpackBlue(orig) / 255f;
+        float max = Math.max(r, Math.max(g, b));
+        float delta = max - Math.min(r, Math.min(g, b));
+        if (delta == 0)
+            return orig;
+        float c = max * clamp01(delta / max * factor);
+        return fromChroma(hue(r, g, b, max, delta), c, max - c, unpackAlpha(orig));
+    }
+
+    /**
+     * Rotates a range of colors' hues. Preserves alpha components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to rotate
+     * @param degrees
+     *         amount to rotate hues by, in degrees
+     * @see #rotateHue(int, float)
+     * @since 7.1.0
+     */
+    public static void rotateHue(int[] src, int srcOff, int[] dst, int dstOff, int length, float degrees) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = rotateHue(src[srcOff + i], degrees);
+    }
+
+    /**
+     * Multiplies a range of colors' saturations (in HSV space). Preserves alpha components.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to saturate
+     * @param factor
+     *         saturation multiplier
+     * @see #saturate(int, float)
+     * @since 7.1.0
+     */
+    public static void saturate(int[] src, int srcOff, int[] dst, int dstOff, int length, float factor) {
+        checkRange(src.length, srcOff, length);
+        checkRange(dst.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = saturate(src[srcOff + i], factor);
+    }
 }
@@ -0,0 +1,257 @@
+package adudecalledleo.lionutils.color;
+
+import adudecalledleo.lionutils.InitializerUtil;
+
+import java.nio.IntBuffer;
+
+/**
+ * Helper class for blending colors in linear light.<p>
+ * The color operations in {@link ColorUtil} work directly on sRGB-encoded components, which makes gradients and blends
+ * look darker than they should. The operations in this class convert components to linear light first, do the math
+ * there, then convert back.<p>
+ * Conversions are done with precomputed tables (256 entries from sRGB to 16-bit linear, 4096 entries from 12-bit
+ * linear back to sRGB), so these operations cost little more than their {@code ColorUtil} counterparts. Round trips
+ * through linear light are exact for all 8-bit sRGB values; blended results may be off by at most 1 per component
+ * compared to doing the conversion with {@link Math#pow(double, double)}.
+ *
+ * @since 7.1.0
+ */
+public final class LinearColorUtil {
+    private LinearColorUtil() {
+        InitializerUtil.utilCtor();
+    }
+
+    /**
+     * The maximum linear light value.
+     */
+    public static final int LINEAR_MAX = 0xFFFF;
+
+    private static final int[] TO_LINEAR = new int[256];
+    private static final byte[] FROM_LINEAR = new byte[4096];
+
+    static {
+        for (int i = 0; i < TO_LINEAR.length; i++)
+            TO_LINEAR[i] = (int) Math.round(srgbToLinear(i / 255.0) * LINEAR_MAX);
+        for (int i = 0; i < FROM_LINEAR.length; i++)
+            FROM_LINEAR[i] = (byte) Math.round(linearToSrgb((i + 0.5) / FROM_LINEAR.length) * 255);
+        // make sure every 8-bit value survives a round trip, even in the dark end where the 12-bit buckets are coarse
+        for (int i = 0; i < TO_LINEAR.length; i++)
+            FROM_LINEAR[TO_LINEAR[i] >>> 4] = (byte) i;
+    }
+
+    private static double srgbToLinear(double v) {
+        if (v <= 0.04045)
+            return v / 12.92;
+        return Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static double linearToSrgb(double v) {
+        if (v <= 0.0031308)
+            return v * 12.92;
+        return 1.055 * Math.pow(v, 1 / 2.4) - 0.055;
+    }
+
+    /**
+     * Converts an sRGB-encoded component to linear light.
+     *
+     * @param comp
+     *         sRGB component value (0-255)
+     * @return linear light value (0-{@link #LINEAR_MAX})
+     */
+    public static int toLinear(int comp) {
+        return TO_LINEAR[comp & 0xFF];
+    }
+
+    /**
+     * Converts linear light to an sRGB-encoded component.
+     *
+     * @param linear
+     *         linear light value (0-{@link #LINEAR_MAX}, clamped)
+     * @return sRGB component value (0-255)
+     */
+    public static int fromLinear(int linear) {
+        if (linear <= 0)
+            return 0;
+        if (linear >= LINEAR_MAX)
+            return 0xFF;
+        return FROM_LINEAR[linear >>> 4] & 0xFF;
+    }
+
+    // 12-bit fixed point, so (LINEAR_MAX * weight) always fits in an int
+    private static int toFixed12(float f) {
+        if (f <= 0)
+            return 0;
+        if (f >= 1)
+            return 0x1000;
+        return (int) (f * 0x1000 + 0.5f);
+    }
+
+    private static int mixComp(int v1, int v2, int w) {
+        return FROM_LINEAR[(TO_LINEAR[v1] * (0x1000 - w) + TO_LINEAR[v2] * w) >>> 16] & 0xFF;
+    }
+
+    private static int mixLinear0(int c1, int c2, int w) {
+        int r = mixComp((c1 >> 16) & 0xFF, (c2 >> 16) & 0xFF, w);
+        int g = mixComp((c1 >> 8) & 0xFF, (c2 >> 8) & 0xFF, w);
+        int b = mixComp(c1 & 0xFF, c2 & 0xFF, w);
+        return ColorUtil.pack(r, g, b, 0xFF);
+    }
+
+    private static int multiplyComp(int v, int m) {
+        return FROM_LINEAR[(TO_LINEAR[v] * m) >>> 16] & 0xFF;
+    }
+
+    private static int multiplyLinear0(int orig, int m) {
+        int r = multiplyComp((orig >> 16) & 0xFF, m);
+        int g = multiplyComp((orig >> 8) & 0xFF, m);
+        int b = multiplyComp(orig & 0xFF, m);
+        return ColorUtil.pack(r, g, b, orig >>> 24);
+    }
+
+    /**
+     * Mixes two colors together in linear light. Ignores alpha values and returns an opaque color (alpha = 255).
+     *
+     * @param c1
+     *         first color to mix
+     * @param c2
+     *         second color to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color (clamped to [0, 1])
+     * @return the mixed color
+     *
+     * @see ColorUtil#mix(int, int, float)
+     */
+    public static int mixLinear(int c1, int c2, float bias) {
+        return mixLinear0(c1, c2, toFixed12(bias));
+    }
+
+    /**
+     * Multiplies a color's red, green and blue components in linear light.
+     *
+     * @param orig
+     *         original color
+     * @param multiplier
+     *         component multiplier (clamped to [0, 1])
+     * @return the multiplied color
+     *
+     * @see ColorUtil#multiply(int, float)
+     */
+    public static int multiplyLinear(int orig, float multiplier) {
+        return multiplyLinear0(orig, toFixed12(multiplier));
+    }
+
+    /**
+     * Mixes two ranges of colors together in linear light. Ignores alpha values and produces opaque colors
+     * (alpha = 255).
+     *
+     * @param src1
+     *         first colors to mix
+     * @param src1Off
+     *         offset of first color in {@code src1}
+     * @param src2
+     *         second colors to mix
+     * @param src2Off
+     *         offset of first color in {@code src2}
+     * @param dst
+     *         destination colors (may be the same array as {@code src1} or {@code src2})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color (clamped to [0, 1])
+     * @see #mixLinear(int, int, float)
+     */
+    public static void mixLinear(int[] src1, int src1Off, int[] src2, int src2Off, int[] dst, int dstOff,
+            int length, float bias) {
+        ColorUtil.checkRange(src1.length, src1Off, length);
+        ColorUtil.checkRange(src2.length, src2Off, length);
+        ColorUtil.checkRange(dst.length, dstOff, length);
+        final int w = toFixed12(bias);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = mixLinear0(src1[src1Off + i], src2[src2Off + i], w);
+    }
+
+    /**
+     * Mixes two ranges of colors together in linear light. Ignores alpha values and produces opaque colors
+     * (alpha = 255).
+     *
+     * @param src1
+     *         first colors to mix
+     * @param src1Off
+     *         index of first color in {@code src1}
+     * @param src2
+     *         second colors to mix
+     * @param src2Off
+     *         index of first color in {@code src2}
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src1} or {@code src2})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to mix
+     * @param bias
+     *         mixing bias, where 0 is the first color and 1 is the second color (clamped to [0, 1])
+     * @see #mixLinear(int, int, float)
+     */
+    public static void mixLinear(IntBuffer src1, int src1Off, IntBuffer src2, int src2Off, IntBuffer dst,
+            int dstOff, int length, float bias) {
+        ColorUtil.checkRange(src1.limit(), src1Off, length);
+        ColorUtil.checkRange(src2.limit(), src2Off, length);
+        ColorUtil.checkRange(dst.limit(), dstOff, length);
+        final int w = toFixed12(bias);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, mixLinear0(src1.get(src1Off + i), src2.get(src2Off + i), w));
+    }
+
+    /**
+     * Multiplies a range of colors' red, green and blue components in linear light.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dst
+     *         destination colors (may be the same array as {@code src})
+     * @param dstOff
+     *         offset of first destination color
+     * @param length
+     *         number of colors to multiply
+     * @param multiplier
+     *         component multiplier (clamped to [0, 1])
+     * @see #multiplyLinear(int, float)
+     */
+    public static void multiplyLinear(int[] src, int srcOff, int[] dst, int dstOff, int length, float multiplier) {
+        ColorUtil.checkRange(src.length, srcOff, length);
+        ColorUtil.checkRange(dst.length, dstOff, length);
+        final int m = toFixed12(multiplier);
+        for (int i = 0; i < length; i++)
+            dst[dstOff + i] = multiplyLinear0(src[srcOff + i], m);
+    }
+
+    /**
+     * Multiplies a range of colors' red, green and blue components in linear light.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         index of first source color
+     * @param dst
+     *         destination colors (may be the same buffer as {@code src})
+     * @param dstOff
+     *         index of first destination color
+     * @param length
+     *         number of colors to multiply
+     * @param multiplier
+     *         component multiplier (clamped to [0, 1])
+     * @see #multiplyLinear(int, float)
+     */
+    public static void multiplyLinear(IntBuffer src, int srcOff, IntBuffer dst, int dstOff, int length,
+            float multiplier) {
+        ColorUtil.checkRange(src.limit(), srcOff, length);
+        ColorUtil.checkRange(dst.limit(), dstOff, length);
+        final int m = toFixed12(multiplier);
+        for (int i = 0; i < length; i++)
+            dst.put(dstOff + i, multiplyLinear0(src.get(srcOff + i), m));
+    }
+}
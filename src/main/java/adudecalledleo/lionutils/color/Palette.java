@@ -0,0 +1,192 @@
+package adudecalledleo.lionutils.color;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represents a fixed palette of up to 256 colors, and allows mapping arbitrary colors to their nearest palette entry.
+ * <p>
+ * Distance is measured as the squared Euclidean distance between the red, green and blue components. Alpha components
+ * are ignored.<p>
+ * When a palette is created, RGB space is split into a 32x32x32 cube of cells, and each cell is assigned the (usually
+ * very short) list of entries that could possibly be the nearest entry for any color in that cell. Looking up a color
+ * then only has to check that list, while still always returning the exact nearest entry. Palettes are immutable and
+ * can be shared freely between threads.
+ *
+ * @since 7.1.0
+ */
+public final class Palette {
+    /**
+     * The maximum number of colors a palette can hold.
+     */
+    public static final int MAX_SIZE = 256;
+
+    private static final int CELL_BITS = 5;
+    private static final int CELL_SHIFT = 8 - CELL_BITS;
+    private static final int CELLS_PER_AXIS = 1 << CELL_BITS;
+    private static final int CELL_WIDTH = 1 << CELL_SHIFT;
+
+    private final int[] colors;
+    // candidates for cell i are candidates[cellStarts[i]] until candidates[cellStarts[i + 1]]
+    private final int[] cellStarts;
+    private final byte[] candidates;
+
+    private Palette(int[] colors) {
+        this.colors = colors;
+        final int cellCount = CELLS_PER_AXIS * CELLS_PER_AXIS * CELLS_PER_AXIS;
+        cellStarts = new int[cellCount + 1];
+        byte[] cands = new byte[cellCount * 2];
+        int candCount = 0;
+        int[] minDists = new int[colors.length];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int r0 = (cell >> (CELL_BITS * 2)) << CELL_SHIFT;
+            int g0 = ((cell >> CELL_BITS) & (CELLS_PER_AXIS - 1)) << CELL_SHIFT;
+            int b0 = (cell & (CELLS_PER_AXIS - 1)) << CELL_SHIFT;
+            // the nearest entry for any color in this cell is at most this far away
+            int bound = Integer.MAX_VALUE;
+            for (int i = 0; i < colors.length; i++) {
+                int c = colors[i];
+                int r = ColorUtil.unpackRed(c), g = ColorUtil.unpackGreen(c), b = ColorUtil.unpackBlue(c);
+                minDists[i] = sq(axisMin(r, r0)) + sq(axisMin(g, g0)) + sq(axisMin(b, b0));
+                bound = Math.min(bound, sq(axisMax(r, r0)) + sq(axisMax(g, g0)) + sq(axisMax(b, b0)));
+            }
+            cellStarts[cell] = candCount;
+            for (int i = 0; i < colors.length; i++) {
+                if (minDists[i] > bound)
+                    continue;
+                if (candCount == cands.length)
+                    cands = Arrays.copyOf(cands, cands.length * 2);
+                cands[candCount++] = (byte) i;
+            }
+        }
+        cellStarts[cellCount] = candCount;
+        candidates = Arrays.copyOf(cands, candCount);
+    }
+
+    private static int sq(int v) {
+        return v * v;
+    }
+
+    private static int axisMin(int v, int lo) {
+        int hi = lo + CELL_WIDTH - 1;
+        if (v < lo)
+            return lo - v;
+        if (v > hi)
+            return v - hi;
+        return 0;
+    }
+
+    private static int axisMax(int v, int lo) {
+        return Math.max(Math.abs(v - lo), Math.abs(v - (lo + CELL_WIDTH - 1)));
+    }
+
+    /**
+     * Creates a new palette.
+     *
+     * @param colors
+     *         palette colors (copied)
+     * @return the new palette
+     */
+    public static Palette of(int... colors) {
+        Objects.requireNonNull(colors, "colors == null!");
+        if (colors.length == 0)
+            throw new IllegalArgumentException("Palette must have at least one color!");
+        if (colors.length > MAX_SIZE)
+            throw new IllegalArgumentException(
+                    "Palette can have at most " + MAX_SIZE + " colors, but got " + colors.length);
+        return new Palette(colors.clone());
+    }
+
+    /**
+     * Gets the amount of colors in this palette.
+     *
+     * @return palette size
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * Gets a color in this palette.
+     *
+     * @param index
+     *         color index
+     * @return the color
+     */
+    public int getColor(int index) {
+        return colors[index];
+    }
+
+    /**
+     * Finds the index of the palette entry nearest to the specified color.<p>
+     * If several entries are equally near, the one with the lowest index is returned.
+     *
+     * @param color
+     *         color to look up
+     * @return index of the nearest palette entry
+     */
+    public int nearest(int color) {
+        int r = ColorUtil.unpackRed(color), g = ColorUtil.unpackGreen(color), b = ColorUtil.unpackBlue(color);
+        int cell = (r >> CELL_SHIFT) << (CELL_BITS * 2) | (g >> CELL_SHIFT) << CELL_BITS | (b >> CELL_SHIFT);
+        int best = 0, bestDist = Integer.MAX_VALUE;
+        for (int i = cellStarts[cell], end = cellStarts[cell + 1]; i < end; i++) {
+            int index = candidates[i] & 0xFF;
+            int c = colors[index];
+            int dist = sq(ColorUtil.unpackRed(c) - r) + sq(ColorUtil.unpackGreen(c) - g)
+                    + sq(ColorUtil.unpackBlue(c) - b);
+            if (dist < bestDist) {
+                best = index;
+                bestDist = dist;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the palette entry nearest to the specified color.
+     *
+     * @param color
+     *         color to look up
+     * @return the nearest palette entry
+     *
+     * @see #nearest(int)
+     */
+    public int nearestColor(int color) {
+        return colors[nearest(color)];
+    }
+
+    /**
+     * Maps a range of colors to the indices of their nearest palette entries.
+     *
+     * @param src
+     *         source colors
+     * @param srcOff
+     *         offset of first source color
+     * @param dstIdx
+     *         destination indices (read as unsigned bytes)
+     * @param dstOff
+     *         offset of first destination index
+     * @param length
+     *         number of colors to map
+     * @see #nearest(int)
+     */
+    public void quantize(int[] src, int srcOff, byte[] dstIdx, int dstOff, int length) {
+        ColorUtil.checkRange(src.length, srcOff, length);
+        ColorUtil.checkRange(dstIdx.length, dstOff, length);
+        for (int i = 0; i < length; i++)
+            dstIdx[dstOff + i] = (byte) nearest(src[srcOff + i]);
+    }
+
+    /**
+     * Maps colors to the indices of their nearest palette entries.
+     *
+     * @param src
+     *         source colors
+     * @param dstIdx
+     *         destination indices (read as unsigned bytes), must be at least as long as {@code src}
+     * @see #quantize(int[], int, byte[], int, int)
+     */
+    public void quantize(int[] src, byte[] dstIdx) {
+        quantize(src, 0, dstIdx, 0, src.length);
+    }
+}
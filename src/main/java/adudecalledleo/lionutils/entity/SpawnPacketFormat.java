@@ -0,0 +1,61 @@
+package adudecalledleo.lionutils.entity;
+
+import adudecalledleo.lionutils.network.PacketBufUtil;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Represents how an entity spawn packet created by {@link SpawnPacketUtil} is encoded.<p>
+ * The format is chosen per packet ID, and <em>must</em> be the same on both sides - pass the same format to
+ * {@link SpawnPacketUtil#create(net.minecraft.entity.Entity, net.minecraft.util.Identifier, SpawnPacketFormat)
+ * SpawnPacketUtil.create} and
+ * {@link adudecalledleo.lionutils.client.entity.ClientSpawnPacketUtil#register(net.minecraft.util.Identifier,
+ * SpawnPacketFormat) ClientSpawnPacketUtil.register}.
+ *
+ * @since 7.1.0
+ */
+public enum SpawnPacketFormat {
+    /**
+     * The default format. Writes the entity's UUID and its exact position.
+     */
+    STANDARD(true, false),
+    /**
+     * Writes the entity's UUID, and its position in a compact, chunk-relative form
+     * (see {@link PacketBufUtil#writeVec3dCompact(net.minecraft.network.PacketByteBuf, Vec3d)}).<br>
+     * The position is rounded to 1/{@value PacketBufUtil#QUANTIZED_STEPS_PER_BLOCK} of a block.
+     */
+    COMPACT(true, true),
+    /**
+     * Same as {@link #COMPACT}, but doesn't write the entity's UUID at all.<br>
+     * The client-side entity keeps the random UUID it was constructed with, so this should only be used for
+     * entities that are never looked up by UUID on the client, such as projectiles and debris.
+     */
+    COMPACT_NO_UUID(false, true);
+
+    private final boolean includesUuid;
+    private final boolean compactPosition;
+
+    SpawnPacketFormat(boolean includesUuid, boolean compactPosition) {
+        this.includesUuid = includesUuid;
+        this.compactPosition = compactPosition;
+    }
+
+    /**
+     * Checks if this format includes the entity's UUID.
+     *
+     * @return {@code true} if the UUID is written, {@code false} otherwise
+     */
+    public boolean includesUuid() {
+        return includesUuid;
+    }
+
+    /**
+     * Checks if this format uses the compact position encoding.
+     *
+     * @return {@code true} if the position is written with
+     * {@link PacketBufUtil#writeVec3dCompact(net.minecraft.network.PacketByteBuf, Vec3d)},
+     * {@code false} if it's written with {@link PacketBufUtil#writeVec3d(net.minecraft.network.PacketByteBuf, Vec3d)}
+     */
+    public boolean isPositionCompact() {
+        return compactPosition;
+    }
+}
@@ -2,14 +2,18 @@ package adudecalledleo.lionutils.entity;
 
 import adudecalledleo.lionutils.InitializerUtil;
 import adudecalledleo.lionutils.RequiresFabricAPI;
+import adudecalledleo.lionutils.internal.entity.SpawnPacketBatcher;
+import adudecalledleo.lionutils.internal.entity.SpawnPacketCodec;
 import adudecalledleo.lionutils.network.PacketBufUtil;
-import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.network.ServerSidePacketRegistry;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
 import net.minecraft.network.Packet;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.registry.Registry;
+
+import java.util.Objects;
 
 /**
  * Helper class for dealing with entity spawn packets.
@@ -18,6 +22,8 @@ import net.minecraft.util.registry.Registry;
  */
 @RequiresFabricAPI
 public final class SpawnPacketUtil {
+    private static boolean flushRegistered;
+
     private SpawnPacketUtil() {
         InitializerUtil.utilCtor();
     }
@@ -41,16 +47,64 @@ public final class SpawnPacketUtil {
      * @return a spawn packet for the specified entity
      */
     public static Packet<?> create(Entity e, Identifier packetID) {
+        return create(e, packetID, SpawnPacketFormat.STANDARD);
+    }
+
+    /**
+     * Creates a S2C packet for spawning the entity on the client, using the specified format.<p>
+     * Make sure you register your {@code packetId} on the client-side with
+     * {@link adudecalledleo.lionutils.client.entity.ClientSpawnPacketUtil#register(Identifier, SpawnPacketFormat)
+     * ClientSpawnPacketUtil.register(Identifier, SpawnPacketFormat)}, using the same format!
+     *
+     * @param e
+     *         entity to create spawn packet for
+     * @param packetID
+     *         spawn packet ID
+     * @param format
+     *         spawn packet format
+     * @return a spawn packet for the specified entity
+     *
+     * @see #create(Entity, Identifier)
+     * @since 7.1.0
+     */
+    public static Packet<?> create(Entity e, Identifier packetID, SpawnPacketFormat format) {
         if (e.world.isClient)
             throw new IllegalStateException("SpawnPacketUtil.create called on the logical client!");
-        PacketByteBuf byteBuf = new PacketByteBuf(Unpooled.buffer());
-        byteBuf.writeVarInt(Registry.ENTITY_TYPE.getRawId(e.getType()));
-        byteBuf.writeUuid(e.getUuid());
-        byteBuf.writeVarInt(e.getEntityId());
-        PacketBufUtil.writeVec3d(byteBuf, e.getPos());
-        PacketBufUtil.writeAngle(byteBuf, e.pitch);
-        PacketBufUtil.writeAngle(byteBuf, e.yaw);
+        PacketByteBuf byteBuf = PacketBufUtil.allocate(SpawnPacketCodec.getSize(e, format));
+        SpawnPacketCodec.write(byteBuf, e, format);
         return ServerSidePacketRegistry.INSTANCE.toPacket(packetID, byteBuf);
     }
 
+    /**
+     * Sends spawn packets for entities of the specified type in batches.<p>
+     * Instead of sending one spawn packet per entity, every entity of this type that starts being tracked by a
+     * player during a server tick is sent to that player in a single packet at the end of the tick. This greatly
+     * reduces the overhead of spawning many entities at once (for example, debris from an explosion).<br>
+     * The entity's {@link Entity#createSpawnPacket()} method is <em>not</em> called for batched spawns.<p>
+     * Make sure you register your {@code packetId} on the client-side with
+     * {@link adudecalledleo.lionutils.client.entity.ClientSpawnPacketUtil#registerBatched(Identifier,
+     * SpawnPacketFormat) ClientSpawnPacketUtil.registerBatched(Identifier, SpawnPacketFormat)}, using the same
+     * format!
+     *
+     * @param type
+     *         entity type to batch spawns of
+     * @param packetID
+     *         batched spawn packet ID
+     * @param format
+     *         spawn packet format
+     * @throws IllegalStateException
+     *         if the entity type already has batched spawn packets
+     * @since 7.1.0
+     */
+    public static void registerBatched(EntityType<?> type, Identifier packetID, SpawnPacketFormat format) {
+        Objects.requireNonNull(type, "type == null!");
+        Objects.requireNonNull(packetID, "packetID == null!");
+        Objects.requireNonNull(format, "format == null!");
+        SpawnPacketBatcher.register(type, packetID, format);
+        if (!flushRegistered) {
+            ServerTickEvents.END_SERVER_TICK.register(server -> SpawnPacketBatcher.flush(
+                    ServerSidePacketRegistry.INSTANCE::sendToPlayer));
+            flushRegistered = true;
+        }
+    }
 }
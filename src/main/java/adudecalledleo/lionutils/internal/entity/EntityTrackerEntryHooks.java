@@ -0,0 +1,16 @@
+package adudecalledleo.lionutils.internal.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Implemented by {@link net.minecraft.server.network.EntityTrackerEntry EntityTrackerEntry} via mixin.
+ */
+public interface EntityTrackerEntryHooks {
+    Entity lionutils$getEntity();
+
+    /**
+     * Does everything {@code startTracking} does, except sending the entity's spawn packet.
+     */
+    void lionutils$finishBatchedSpawn(ServerPlayerEntity player);
+}
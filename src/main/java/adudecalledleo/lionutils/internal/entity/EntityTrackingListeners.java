@@ -0,0 +1,30 @@
+package adudecalledleo.lionutils.internal.entity;
+
+import adudecalledleo.lionutils.InitializerUtil;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Notifies listeners when a player stops tracking an entity, from
+ * {@link net.minecraft.server.network.EntityTrackerEntry#stopTracking(ServerPlayerEntity) EntityTrackerEntry.stopTracking}.
+ */
+public final class EntityTrackingListeners {
+    private EntityTrackingListeners() {
+        InitializerUtil.utilCtor();
+    }
+
+    private static final List<BiConsumer<Entity, ServerPlayerEntity>> STOP_LISTENERS = new CopyOnWriteArrayList<>();
+
+    public static void addStopListener(BiConsumer<Entity, ServerPlayerEntity> listener) {
+        STOP_LISTENERS.add(listener);
+    }
+
+    public static void onStopTracking(Entity entity, ServerPlayerEntity player) {
+        for (BiConsumer<Entity, ServerPlayerEntity> listener : STOP_LISTENERS)
+            listener.accept(entity, player);
+    }
+}
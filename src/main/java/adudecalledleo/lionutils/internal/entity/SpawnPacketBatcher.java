@@ -0,0 +1,113 @@
+package adudecalledleo.lionutils.internal.entity;
+
+import adudecalledleo.lionutils.InitializerUtil;
+import adudecalledleo.lionutils.entity.SpawnPacketFormat;
+import adudecalledleo.lionutils.network.PacketBufUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.*;
+
+/**
+ * Collects spawns of batched entity types until the end of the tick, then sends them in one payload per player
+ * and packet ID.<p>
+ * Only accessed from the server thread.
+ */
+public final class SpawnPacketBatcher {
+    private SpawnPacketBatcher() {
+        InitializerUtil.utilCtor();
+    }
+
+    @FunctionalInterface
+    public interface Sender {
+        void send(ServerPlayerEntity player, Identifier packetID, PacketByteBuf byteBuf);
+    }
+
+    private static final class Target {
+        final Identifier packetID;
+        final SpawnPacketFormat format;
+
+        Target(Identifier packetID, SpawnPacketFormat format) {
+            this.packetID = packetID;
+            this.format = format;
+        }
+    }
+
+    private static final Map<EntityType<?>, Target> TARGETS = new IdentityHashMap<>();
+    private static final Map<ServerPlayerEntity, Set<EntityTrackerEntryHooks>> PENDING = new LinkedHashMap<>();
+    private static final ByteBuf SCRATCH = Unpooled.buffer(256);
+    private static boolean flushing;
+
+    public static void register(EntityType<?> type, Identifier packetID, SpawnPacketFormat format) {
+        Target old = TARGETS.putIfAbsent(type, new Target(packetID, format));
+        if (old != null)
+            throw new IllegalStateException("Entity type " + type + " already has batched spawn packets!");
+    }
+
+    public static boolean enqueue(ServerPlayerEntity player, EntityTrackerEntryHooks entry) {
+        if (TARGETS.isEmpty() || !TARGETS.containsKey(entry.lionutils$getEntity().getType()))
+            return false;
+        PENDING.computeIfAbsent(player, k -> new LinkedHashSet<>()).add(entry);
+        return true;
+    }
+
+    public static void dequeue(ServerPlayerEntity player, EntityTrackerEntryHooks entry) {
+        if (PENDING.isEmpty())
+            return;
+        Set<EntityTrackerEntryHooks> entries = PENDING.get(player);
+        if (entries != null)
+            entries.remove(entry);
+    }
+
+    public static boolean isFlushing() {
+        return flushing;
+    }
+
+    public static void flush(Sender sender) {
+        if (PENDING.isEmpty())
+            return;
+        flushing = true;
+        try {
+            for (Map.Entry<ServerPlayerEntity, Set<EntityTrackerEntryHooks>> playerEntry : PENDING.entrySet()) {
+                ServerPlayerEntity player = playerEntry.getKey();
+                if (player.isDisconnected())
+                    continue;
+                flush(sender, player, playerEntry.getValue());
+            }
+        } finally {
+            PENDING.clear();
+            flushing = false;
+        }
+    }
+
+    private static void flush(Sender sender, ServerPlayerEntity player, Set<EntityTrackerEntryHooks> entries) {
+        Map<Target, List<EntityTrackerEntryHooks>> byTarget = new IdentityHashMap<>();
+        for (EntityTrackerEntryHooks entry : entries) {
+            Entity e = entry.lionutils$getEntity();
+            if (e.removed)
+                continue;
+            byTarget.computeIfAbsent(TARGETS.get(e.getType()), k -> new ArrayList<>()).add(entry);
+        }
+        for (Map.Entry<Target, List<EntityTrackerEntryHooks>> targetEntry : byTarget.entrySet()) {
+            Target target = targetEntry.getKey();
+            List<EntityTrackerEntryHooks> batch = targetEntry.getValue();
+            // encode into the reused scratch buffer, then copy out exactly what was written
+            SCRATCH.clear();
+            PacketByteBuf scratchBuf = new PacketByteBuf(SCRATCH);
+            scratchBuf.writeVarInt(batch.size());
+            for (EntityTrackerEntryHooks entry : batch)
+                SpawnPacketCodec.write(scratchBuf, entry.lionutils$getEntity(), target.format);
+            PacketByteBuf byteBuf = PacketBufUtil.allocate(SCRATCH.readableBytes());
+            byteBuf.writeBytes(SCRATCH);
+            sender.send(player, target.packetID, byteBuf);
+            // the entities now exist on the client, so their trackers can send everything else
+            for (EntityTrackerEntryHooks entry : batch)
+                entry.lionutils$finishBatchedSpawn(player);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package adudecalledleo.lionutils.internal.entity;
+
+import adudecalledleo.lionutils.InitializerUtil;
+import adudecalledleo.lionutils.entity.SpawnPacketFormat;
+import adudecalledleo.lionutils.network.PacketBufUtil;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.registry.Registry;
+
+import java.util.UUID;
+
+/**
+ * Reads and writes the entity records used by spawn packets.
+ */
+public final class SpawnPacketCodec {
+    private SpawnPacketCodec() {
+        InitializerUtil.utilCtor();
+    }
+
+    public static int getSize(Entity e, SpawnPacketFormat format) {
+        return PacketByteBuf.getVarIntSizeBytes(Registry.ENTITY_TYPE.getRawId(e.getType()))
+                + (format.includesUuid() ? 16 : 0)
+                + PacketByteBuf.getVarIntSizeBytes(e.getEntityId())
+                + (format.isPositionCompact() ? PacketBufUtil.getVec3dCompactSize(e.getPos()) : 24)
+                + 2;
+    }
+
+    public static void write(PacketByteBuf byteBuf, Entity e, SpawnPacketFormat format) {
+        byteBuf.writeVarInt(Registry.ENTITY_TYPE.getRawId(e.getType()));
+        if (format.includesUuid())
+            byteBuf.writeUuid(e.getUuid());
+        byteBuf.writeVarInt(e.getEntityId());
+        if (format.isPositionCompact())
+            PacketBufUtil.writeVec3dCompact(byteBuf, e.getPos());
+        else
+            PacketBufUtil.writeVec3d(byteBuf, e.getPos());
+        PacketBufUtil.writeAngle(byteBuf, e.pitch);
+        PacketBufUtil.writeAngle(byteBuf, e.yaw);
+    }
+
+    public static SpawnData read(PacketByteBuf byteBuf, SpawnPacketFormat format) {
+        EntityType<?> type = Registry.ENTITY_TYPE.get(byteBuf.readVarInt());
+        UUID uuid = format.includesUuid() ? byteBuf.readUuid() : null;
+        int entityId = byteBuf.readVarInt();
+        Vec3d pos = format.isPositionCompact() ? PacketBufUtil.readVec3dCompact(byteBuf)
+                : PacketBufUtil.readVec3d(byteBuf);
+        float pitch = PacketBufUtil.readAngle(byteBuf);
+        float yaw = PacketBufUtil.readAngle(byteBuf);
+        return new SpawnData(type, uuid, entityId, pos, pitch, yaw);
+    }
+
+    public static final class SpawnData {
+        public final EntityType<?> type;
+        public final UUID uuid; // null if not included
+        public final int entityId;
+        public final Vec3d pos;
+        public final float pitch, yaw;
+
+        private SpawnData(EntityType<?> type, UUID uuid, int entityId, Vec3d pos, float pitch, float yaw) {
+            this.type = type;
+            this.uuid = uuid;
+            this.entityId = entityId;
+            this.pos = pos;
+            this.pitch = pitch;
+            this.yaw = yaw;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package adudecalledleo.lionutils.internal.mixin;
+
+import adudecalledleo.lionutils.internal.entity.EntityTrackerEntryHooks;
+import adudecalledleo.lionutils.internal.entity.EntityTrackingListeners;
+import adudecalledleo.lionutils.internal.entity.SpawnPacketBatcher;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.Packet;
+import net.minecraft.server.network.EntityTrackerEntry;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.function.Consumer;
+
+@Mixin(EntityTrackerEntry.class)
+public abstract class EntityTrackerEntryMixin implements EntityTrackerEntryHooks {
+    @Shadow @Final private Entity entity;
+
+    @Shadow public abstract void sendPackets(Consumer<Packet<?>> sender);
+
+    @Inject(method = "startTracking", at = @At("HEAD"), cancellable = true)
+    public void queueBatchedSpawn(ServerPlayerEntity player, CallbackInfo ci) {
+        if (SpawnPacketBatcher.enqueue(player, this))
+            ci.cancel();
+    }
+
+    @Inject(method = "stopTracking", at = @At("HEAD"))
+    public void onStopTracking(ServerPlayerEntity player, CallbackInfo ci) {
+        SpawnPacketBatcher.dequeue(player, this);
+        EntityTrackingListeners.onStopTracking(entity, player);
+    }
+
+    @Redirect(method = "sendPackets",
+              at = @At(value = "INVOKE",
+                       target = "Lnet/minecraft/entity/Entity;createSpawnPacket()Lnet/minecraft/network/Packet;"))
+    public Packet<?> skipBatchedSpawnPacket(Entity entity) {
+        // already sent as part of a batch
+        if (SpawnPacketBatcher.isFlushing())
+            return null;
+        return entity.createSpawnPacket();
+    }
+
+    @Override
+    public Entity lionutils$getEntity() {
+        return entity;
+    }
+
+    @Override
+    public void lionutils$finishBatchedSpawn(ServerPlayerEntity player) {
+        sendPackets(packet -> {
+            if (packet != null)
+                player.networkHandler.sendPacket(packet);
+        });
+        entity.onStartedTrackingBy(player);
+        // takes the entity off the player's pending destroy list, in case it left and came back within a tick
+        player.onStartedTracking(entity);
+    }
+}
@@ -23,4 +23,10 @@ public abstract class MinecraftServerMixin {
         GameProfileUtil.setSessionService(sessionService);
         GameProfileUtil.setUserCache(userCache);
     }
+
+    @Inject(method = "shutdown", at = @At("HEAD"))
+    public void saveGameProfileUtilProfiles(CallbackInfo ci) {
+        // saves the pending profiles to this server's cache, and keeps later saves from touching it
+        GameProfileUtil.setUserCache(null);
+    }
 }
@@ -0,0 +1,17 @@
+package adudecalledleo.lionutils.internal.mixin;
+
+import adudecalledleo.lionutils.internal.network.UserCacheSaveBatch;
+import net.minecraft.util.UserCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(UserCache.class)
+public abstract class UserCacheMixin {
+    @Inject(method = "save", at = @At("HEAD"), cancellable = true)
+    public void deferSaveWhileBatching(CallbackInfo ci) {
+        if (UserCacheSaveBatch.isActive())
+            ci.cancel();
+    }
+}
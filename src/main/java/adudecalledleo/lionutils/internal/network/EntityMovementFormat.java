@@ -0,0 +1,27 @@
+package adudecalledleo.lionutils.internal.network;
+
+import adudecalledleo.lionutils.InitializerUtil;
+import adudecalledleo.lionutils.network.PacketBufUtil;
+
+/**
+ * Constants shared by the server and client halves of entity movement sync.<p>
+ * Each packet is: varint entity ID, flags byte, then (in order) 3 {@code double}s if {@link #FLAG_ABSOLUTE},
+ * 3 {@code short}s if {@link #FLAG_DELTA}, 2 angle bytes (pitch, yaw) if {@link #FLAG_ROTATION}.
+ */
+public final class EntityMovementFormat {
+    private EntityMovementFormat() {
+        InitializerUtil.utilCtor();
+    }
+
+    public static final int FLAG_ABSOLUTE = 1;
+    public static final int FLAG_DELTA = 1 << 1;
+    public static final int FLAG_ROTATION = 1 << 2;
+
+    public static long quantize(double v) {
+        return Math.round(v * PacketBufUtil.QUANTIZED_STEPS_PER_BLOCK);
+    }
+
+    public static double dequantize(long q) {
+        return (double) q / PacketBufUtil.QUANTIZED_STEPS_PER_BLOCK;
+    }
+}
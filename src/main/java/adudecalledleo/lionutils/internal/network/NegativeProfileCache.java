@@ -0,0 +1,126 @@
+package adudecalledleo.lionutils.internal.network;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which profiles recently failed to resolve, keyed by UUID and by lowercased name.<p>
+ * Entries are also kept in insertion order, which is expiry order since every entry has the same TTL. When the cache
+ * is full, the oldest entries are evicted first, without scanning the whole cache.
+ */
+public final class NegativeProfileCache {
+    private static final class Index<K> {
+        private static final class Node<K> {
+            final K key;
+            final long expiry;
+
+            Node(K key, long expiry) {
+                this.key = key;
+                this.expiry = expiry;
+            }
+        }
+
+        final Map<K, Long> map = new ConcurrentHashMap<>();
+        // may contain nodes for entries that were re-added or already removed, these are skipped when polled
+        final Queue<Node<K>> order = new ConcurrentLinkedQueue<>();
+        final AtomicInteger orderSize = new AtomicInteger();
+
+        boolean contains(K key, long now) {
+            Long expiry = map.get(key);
+            if (expiry == null)
+                return false;
+            if (now - expiry < 0)
+                return true;
+            map.remove(key, expiry);
+            return false;
+        }
+
+        void add(K key, long expiry, int maxSize) {
+            // evict the oldest entries to make room, also dropping stale nodes so the queue stays bounded
+            while (map.size() >= maxSize || orderSize.get() >= 2L * maxSize) {
+                Node<K> node = order.poll();
+                if (node == null)
+                    break;
+                orderSize.decrementAndGet();
+                map.remove(node.key, node.expiry);
+            }
+            map.put(key, expiry);
+            order.offer(new Node<>(key, expiry));
+            orderSize.incrementAndGet();
+        }
+
+        void clear() {
+            map.clear();
+            order.clear();
+            orderSize.set(0);
+        }
+    }
+
+    private final Index<UUID> byId = new Index<>();
+    private final Index<String> byName = new Index<>();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    private volatile long ttlNanos;
+    private volatile int maxSize;
+
+    public NegativeProfileCache(long ttl, TimeUnit unit, int maxSize) {
+        configure(ttl, unit, maxSize);
+    }
+
+    public void configure(long ttl, TimeUnit unit, int maxSize) {
+        if (ttl < 0)
+            throw new IllegalArgumentException("ttl must be non-negative (was " + ttl + ")!");
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize must be non-negative (was " + maxSize + ")!");
+        ttlNanos = unit.toNanos(ttl);
+        this.maxSize = maxSize;
+        if (ttl == 0 || maxSize == 0)
+            clear();
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean contains(UUID id, String name) {
+        if (maxSize == 0)
+            return false;
+        long now = System.nanoTime();
+        if ((id != null && byId.contains(id, now)) || (name != null && byName.contains(nameKey(name), now))) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void add(UUID id, String name) {
+        if (maxSize == 0 || ttlNanos == 0)
+            return;
+        long expiry = System.nanoTime() + ttlNanos;
+        int max = maxSize;
+        if (id != null)
+            byId.add(id, expiry, max);
+        if (name != null)
+            byName.add(nameKey(name), expiry, max);
+    }
+
+    public void clear() {
+        byId.clear();
+        byName.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
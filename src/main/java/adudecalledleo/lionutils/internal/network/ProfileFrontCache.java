@@ -0,0 +1,132 @@
+package adudecalledleo.lionutils.internal.network;
+
+import com.mojang.authlib.GameProfile;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrent in-memory cache of complete profiles, indexed by UUID and by lowercased name.<p>
+ * Lookups never lock, they only mark the entry as recently used. Entries are kept in insertion order; once the cache
+ * grows past its maximum size by 1/8, one thread walks that order from the oldest entry, giving recently used entries
+ * a second chance (moving them to the back) and evicting the rest, until the cache is back at its maximum size.
+ * This approximates least recently used eviction, with constant work per evicted entry.
+ */
+public final class ProfileFrontCache {
+    private static final class Entry {
+        volatile GameProfile profile;
+        final String nameKey;
+        volatile boolean referenced, removed;
+
+        Entry(GameProfile profile, String nameKey) {
+            this.profile = profile;
+            this.nameKey = nameKey;
+        }
+    }
+
+    private final ConcurrentMap<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> byName = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private volatile int maxSize;
+
+    public ProfileFrontCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize must be non-negative (was " + maxSize + ")!");
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    private static GameProfile touch(Entry entry) {
+        if (entry == null)
+            return null;
+        // only write if needed, so hot entries don't keep invalidating cache lines
+        if (!entry.referenced)
+            entry.referenced = true;
+        return entry.profile;
+    }
+
+    public GameProfile getById(UUID id) {
+        return touch(byId.get(id));
+    }
+
+    public GameProfile getByName(String name) {
+        return touch(byName.get(nameKey(name)));
+    }
+
+    public void put(GameProfile profile) {
+        if (maxSize == 0 || !profile.isComplete())
+            return;
+        String nameKey = nameKey(profile.getName());
+        Entry old = byId.get(profile.getId());
+        if (old != null && old.nameKey.equals(nameKey)) {
+            // same player and name, just refresh the profile (it might have gained properties)
+            old.profile = profile;
+            touch(old);
+            return;
+        }
+        Entry entry = new Entry(profile, nameKey);
+        old = byId.put(profile.getId(), entry);
+        if (old != null) {
+            byName.remove(old.nameKey, old);
+            old.removed = true;
+        }
+        old = byName.put(nameKey, entry);
+        // the name now belongs to someone else
+        if (old != null && !old.profile.getId().equals(profile.getId())) {
+            byId.remove(old.profile.getId(), old);
+            old.removed = true;
+        }
+        order.offer(entry);
+        int max = maxSize;
+        if (byId.size() > max + max / 8)
+            evict();
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true))
+            return;
+        try {
+            // bound the second chances, in case lookups keep marking entries as used while we're evicting
+            int chances = byId.size();
+            Entry entry;
+            while (byId.size() > maxSize && (entry = order.poll()) != null) {
+                if (entry.removed)
+                    continue;
+                if (entry.referenced && chances-- > 0) {
+                    entry.referenced = false;
+                    order.offer(entry);
+                    continue;
+                }
+                entry.removed = true;
+                byId.remove(entry.profile.getId(), entry);
+                byName.remove(entry.nameKey, entry);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void clear() {
+        byId.clear();
+        byName.clear();
+        order.clear();
+    }
+}
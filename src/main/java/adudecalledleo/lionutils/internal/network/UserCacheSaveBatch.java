@@ -0,0 +1,27 @@
+package adudecalledleo.lionutils.internal.network;
+
+import adudecalledleo.lionutils.InitializerUtil;
+
+/**
+ * While a batch is active on the current thread, {@link net.minecraft.util.UserCache#save() UserCache.save()} does
+ * nothing, so adding many profiles only writes the cache file once.
+ */
+public final class UserCacheSaveBatch {
+    private UserCacheSaveBatch() {
+        InitializerUtil.utilCtor();
+    }
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+    public static void begin() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    public static void end() {
+        ACTIVE.set(Boolean.FALSE);
+    }
+}
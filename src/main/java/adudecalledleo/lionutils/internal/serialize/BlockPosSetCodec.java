@@ -0,0 +1,132 @@
+package adudecalledleo.lionutils.internal.serialize;
+
+import adudecalledleo.lionutils.InitializerUtil;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Encodes sets of packed {@link BlockPos}es into compact byte arrays.<p>
+ * Format: 1 format byte, the position count as a varint, then the entries.<br>
+ * Positions are converted to sort keys ordered by Y, then Z, then X (so neighbors along the X axis have consecutive
+ * keys), sorted, deduplicated and stored as unsigned varlong deltas from the previous key.<br>
+ * In the {@linkplain #FORMAT_DELTA_RLE run-length} format, each delta is followed by a varint holding the number of
+ * keys directly following it (that is, the length of the run along the X axis minus one).
+ */
+public final class BlockPosSetCodec {
+    private BlockPosSetCodec() {
+        InitializerUtil.utilCtor();
+    }
+
+    public static final byte FORMAT_DELTA = 1;
+    public static final byte FORMAT_DELTA_RLE = 2;
+
+    private static final int XZ_BITS = 26, XZ_BIAS = 1 << (XZ_BITS - 1);
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final int Y_BITS = 12, Y_BIAS = 1 << (Y_BITS - 1);
+
+    // sort keys are compared as signed longs, hence the sign flip
+    private static long toSortKey(long pos) {
+        long x = (BlockPos.unpackLongX(pos) + XZ_BIAS) & XZ_MASK;
+        long z = (BlockPos.unpackLongZ(pos) + XZ_BIAS) & XZ_MASK;
+        long y = (BlockPos.unpackLongY(pos) + Y_BIAS) & ((1L << Y_BITS) - 1);
+        return (y << (XZ_BITS * 2) | z << XZ_BITS | x) ^ Long.MIN_VALUE;
+    }
+
+    private static long fromUnsignedKey(long key) {
+        int x = (int) (key & XZ_MASK) - XZ_BIAS;
+        int z = (int) ((key >>> XZ_BITS) & XZ_MASK) - XZ_BIAS;
+        int y = (int) (key >>> (XZ_BITS * 2)) - Y_BIAS;
+        return BlockPos.asLong(x, y, z);
+    }
+
+    public static boolean isKnownFormat(byte format) {
+        return format == FORMAT_DELTA || format == FORMAT_DELTA_RLE;
+    }
+
+    public static byte[] encode(long[] posLongs, int count, boolean runLength) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++)
+            keys[i] = toSortKey(posLongs[i]);
+        Arrays.sort(keys);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || keys[i] != keys[unique - 1])
+                keys[unique++] = keys[i];
+        }
+        ByteArrayList out = new ByteArrayList(unique * 2 + 6);
+        out.add(runLength ? FORMAT_DELTA_RLE : FORMAT_DELTA);
+        writeVarLong(out, unique);
+        long prev = 0;
+        for (int i = 0; i < unique; i++) {
+            long key = keys[i] ^ Long.MIN_VALUE;
+            writeVarLong(out, key - prev);
+            if (runLength) {
+                int run = 0;
+                while (i + 1 < unique && (keys[i + 1] ^ Long.MIN_VALUE) == key + 1) {
+                    key++;
+                    i++;
+                    run++;
+                }
+                writeVarLong(out, run);
+            }
+            prev = key;
+        }
+        return out.toByteArray();
+    }
+
+    public static int decode(byte[] data, LongConsumer visitor) {
+        if (data.length == 0 || !isKnownFormat(data[0]))
+            return 0;
+        boolean runLength = data[0] == FORMAT_DELTA_RLE;
+        int[] cursor = { 1 };
+        long count = readVarLong(data, cursor);
+        if (count < 0 || count > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid position count " + Long.toUnsignedString(count));
+        int visited = 0;
+        long key = 0;
+        while (visited < count) {
+            key += readVarLong(data, cursor);
+            visitor.accept(fromUnsignedKey(key));
+            visited++;
+            if (runLength) {
+                long run = readVarLong(data, cursor);
+                // a run can't hold more positions than are left (this also rejects "negative" runs)
+                if (Long.compareUnsigned(run, count - visited) > 0)
+                    throw new IllegalArgumentException("Run of " + Long.toUnsignedString(run)
+                            + " positions exceeds remaining position count " + (count - visited));
+                for (; run > 0; run--) {
+                    visitor.accept(fromUnsignedKey(++key));
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static void writeVarLong(ByteArrayList out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.add((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.add((byte) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] cursor) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (cursor[0] >= data.length)
+                throw new IllegalArgumentException("Truncated BlockPos set data");
+            if (shift >= 64)
+                throw new IllegalArgumentException("VarLong is too big");
+            b = data[cursor[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+package adudecalledleo.lionutils.internal.serialize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches lookup tables for {@code enum} types, so looking up constants by name or ordinal neither scans the constants
+ * nor throws when the constant doesn't exist.<p>
+ * Tables are built once per type and held by a {@link ClassValue}, so they don't keep their types from being
+ * unloaded.
+ *
+ * @param <T>
+ *         type of {@code enum}
+ */
+public final class EnumCache<T extends Enum<T>> {
+    private static final ClassValue<EnumCache<?>> CACHES = new ClassValue<EnumCache<?>>() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        protected EnumCache<?> computeValue(Class<?> type) {
+            return new EnumCache(type);
+        }
+    };
+
+    private final T[] constants;
+    private final Map<String, T> byName;
+
+    private EnumCache(Class<T> enumType) {
+        constants = enumType.getEnumConstants();
+        if (constants == null)
+            throw new IllegalArgumentException(enumType + " is not an enum type!");
+        byName = new HashMap<>(constants.length * 2);
+        for (T constant : constants)
+            byName.put(constant.name(), constant);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Enum<T>> EnumCache<T> get(Class<T> enumType) {
+        return (EnumCache<T>) CACHES.get(enumType);
+    }
+
+    public T byName(String name) {
+        return byName.get(name);
+    }
+
+    public T byOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= constants.length)
+            return null;
+        return constants[ordinal];
+    }
+
+    // shared, do not modify!
+    public T[] values() {
+        return constants;
+    }
+
+    public int size() {
+        return constants.length;
+    }
+}
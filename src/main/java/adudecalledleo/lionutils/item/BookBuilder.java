@@ -1,5 +1,6 @@
 package adudecalledleo.lionutils.item;
 
+import adudecalledleo.lionutils.serialize.NbtInterner;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.nbt.CompoundTag;
@@ -74,6 +75,7 @@ public final class BookBuilder {
     private final Text title;
     private final List<Page> pages;
     private List<Text> lore;
+    private NbtInterner interner;
 
     private BookBuilder(String author, Text title) {
         this.author = author;
@@ -200,6 +202,25 @@ public final class BookBuilder {
         return this;
     }
 
+    /**
+     * Sets the interner used to share sub-tags between the resulting stacks.<p>
+     * Stacks built with the same interner share equal lore lists instead of each holding their own copy, which saves
+     * a lot of memory when building many similar stacks. Shared lore lists must not be modified in place (the lore
+     * methods of {@link ItemStackUtil} copy them first).<br>
+     * Since the game modifies page lists in place, each stack gets its own page list, but equal pages in those lists
+     * are shared.
+     *
+     * @param interner
+     *         interner to use, or {@code null} to not share sub-tags
+     * @return this builder
+     *
+     * @since 7.1.0
+     */
+    public BookBuilder setInterner(NbtInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
     /**
      * Builds a new {@code ItemStack} representing the resulting book.
      *
@@ -214,6 +235,8 @@ public final class BookBuilder {
         stack.setCustomName(title);
         if (lore != null)
             ItemStackUtil.setLore(stack, lore);
+        if (interner != null)
+            ItemStackUtil.internSubTags(stack, interner, "pages");
         return stack;
     }
 
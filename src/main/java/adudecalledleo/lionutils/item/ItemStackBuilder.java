@@ -1,5 +1,7 @@
 package adudecalledleo.lionutils.item;
 
+import adudecalledleo.lionutils.network.GameProfileUtil;
+import adudecalledleo.lionutils.serialize.NbtInterner;
 import com.mojang.authlib.GameProfile;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.EnchantmentHelper;
@@ -33,6 +35,7 @@ public final class ItemStackBuilder {
     private EnumSet<ItemStack.TooltipSection> hiddenTooltipSections;
     private EnchantMapBuilder enchantMapBuilder;
     private Consumer<CompoundTag> tagMutator;
+    private NbtInterner interner;
 
     private ItemStackBuilder() {
         item = Items.AIR;
@@ -267,7 +270,8 @@ public final class ItemStackBuilder {
     /**
      * Configures this builder to build heads of the specified player.<p>
      * <strong>NOTE:</strong> This overwrites the {@linkplain #setItem(Item) item}, {@linkplain #setDamage(int) damage}
-     * and {@linkplain #setTagMutator(Consumer) tag mutator}!
+     * and {@linkplain #setTagMutator(Consumer) tag mutator}!<p>
+     * If the profile has no skin textures but {@link GameProfileUtil} has them cached, the cached textures are used.
      *
      * @param profile
      *         profile of player to build heads of
@@ -276,7 +280,28 @@ public final class ItemStackBuilder {
     public ItemStackBuilder playerHead(GameProfile profile) {
         item = Items.PLAYER_HEAD;
         damageSet = false;
-        return setTagMutator(tag -> tag.put("SkullOwner", NbtHelper.fromGameProfile(new CompoundTag(), profile)));
+        // use the cached skin if we have it, so the head doesn't have to fetch it again
+        GameProfile filled = GameProfileUtil.fillCachedTextures(profile);
+        return setTagMutator(tag -> tag.put("SkullOwner", NbtHelper.fromGameProfile(new CompoundTag(), filled)));
+    }
+
+    /**
+     * Sets the interner used to share sub-tags between the resulting stacks.<p>
+     * Stacks built with the same interner share equal lore lists instead of each holding their own copy, which saves
+     * a lot of memory when building many similar stacks. Shared lore lists must not be modified in place (the lore
+     * methods of {@link ItemStackUtil} copy them first).<br>
+     * Since the game modifies enchantment lists in place, each stack gets its own enchantment list, but equal entries
+     * in those lists (which the game replaces rather than modifies) are shared.
+     *
+     * @param interner
+     *         interner to use, or {@code null} to not share sub-tags
+     * @return this builder
+     *
+     * @since 7.1.0
+     */
+    public ItemStackBuilder setInterner(NbtInterner interner) {
+        this.interner = interner;
+        return this;
     }
 
     /**
@@ -304,6 +329,8 @@ public final class ItemStackBuilder {
             ItemStackUtil.setHiddenTooltipSections(stack, hiddenTooltipSections);
         if (tagMutator != null)
             tagMutator.accept(stack.getOrCreateTag());
+        if (interner != null)
+            ItemStackUtil.internSubTags(stack, interner, "Enchantments");
         return stack;
     }
 }
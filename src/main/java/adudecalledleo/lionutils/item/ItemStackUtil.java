@@ -1,12 +1,14 @@
 package adudecalledleo.lionutils.item;
 
 import adudecalledleo.lionutils.InitializerUtil;
+import adudecalledleo.lionutils.serialize.NbtInterner;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.text.Text;
 
 import java.util.*;
@@ -113,13 +115,13 @@ public final class ItemStackUtil {
 
     private static ListTag getOrCreateLoreListTag(ItemStack stack, boolean clear) {
         CompoundTag displayTag = stack.getOrCreateSubTag("display");
+        // always put a new list, since the existing one might be shared (see NbtInterner)
         ListTag loreListTag;
-        if (displayTag.contains("Lore", /* NbtType.LIST */ 9)) {
-            loreListTag = displayTag.getList("Lore", /* NbtType.STRING */ 8);
-            if (clear)
-                loreListTag.clear();
-        } else
-            displayTag.put("Lore", loreListTag = new ListTag());
+        if (!clear && displayTag.contains("Lore", /* NbtType.LIST */ 9))
+            loreListTag = displayTag.getList("Lore", /* NbtType.STRING */ 8).copy();
+        else
+            loreListTag = new ListTag();
+        displayTag.put("Lore", loreListTag);
         return loreListTag;
     }
 
@@ -333,4 +335,26 @@ public final class ItemStackUtil {
         }
         return stack;
     }
+
+    // used by builders to share common sub-tags between the stacks they build
+    // vanilla never modifies lore lists in place (and neither do our lore helpers), so those can be shared outright
+    // the lists named by "keys" *are* modified in place by vanilla (enchanting, resolving book pages, etc.), so each
+    //  stack gets its own list - but vanilla replaces their entries rather than modifying them, so those are shared
+    static void internSubTags(ItemStack stack, NbtInterner interner, String... keys) {
+        CompoundTag tag = stack.getTag();
+        if (tag == null)
+            return;
+        for (String key : keys) {
+            Tag child = tag.get(key);
+            if (!(child instanceof ListTag))
+                continue;
+            ListTag ownList = new ListTag();
+            for (Tag element : (ListTag) child)
+                ownList.add(interner.intern(element));
+            tag.put(key, ownList);
+        }
+        CompoundTag displayTag = stack.getSubTag("display");
+        if (displayTag != null)
+            interner.internChild(displayTag, "Lore");
+    }
 }
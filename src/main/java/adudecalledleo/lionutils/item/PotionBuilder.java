@@ -1,5 +1,6 @@
 package adudecalledleo.lionutils.item;
 
+import adudecalledleo.lionutils.serialize.NbtInterner;
 import net.minecraft.entity.effect.StatusEffect;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.item.Item;
@@ -28,6 +29,7 @@ public final class PotionBuilder {
     private ArrayList<StatusEffectInstance> customEffects;
     private Text customName;
     private ArrayList<Text> lore;
+    private NbtInterner interner;
 
     private PotionBuilder() {
         item = Items.POTION;
@@ -241,6 +243,25 @@ public final class PotionBuilder {
         return this;
     }
 
+    /**
+     * Sets the interner used to share sub-tags between the resulting stacks.<p>
+     * Stacks built with the same interner share equal lore lists instead of each holding their own copy, which saves
+     * a lot of memory when building many similar stacks. Shared lore lists must not be modified in place (the lore
+     * methods of {@link ItemStackUtil} copy them first).<br>
+     * Since the game modifies custom effect lists in place, each stack gets its own custom effect list, but equal
+     * entries in those lists (which the game replaces rather than modifies) are shared.
+     *
+     * @param interner
+     *         interner to use, or {@code null} to not share sub-tags
+     * @return this builder
+     *
+     * @since 7.1.0
+     */
+    public PotionBuilder setInterner(NbtInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
     /**
      * Builds a new {@code ItemStack} representing the resulting potion.
      *
@@ -257,6 +278,8 @@ public final class PotionBuilder {
             potionStack.setCustomName(customName);
         if (lore != null)
             ItemStackUtil.setLore(potionStack, lore);
+        if (interner != null)
+            ItemStackUtil.internSubTags(potionStack, interner, "CustomPotionEffects");
         return potionStack;
     }
 }
@@ -0,0 +1,190 @@
+package adudecalledleo.lionutils.network;
+
+import adudecalledleo.lionutils.RequiresFabricAPI;
+import adudecalledleo.lionutils.internal.entity.EntityTrackingListeners;
+import com.google.common.collect.MapMaker;
+import net.fabricmc.fabric.api.network.ServerSidePacketRegistry;
+import net.fabricmc.fabric.api.server.PlayerStream;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import static adudecalledleo.lionutils.internal.network.EntityMovementFormat.*;
+
+/**
+ * Synchronizes the position and rotation of entities to the players tracking them, sending only what changed.<p>
+ * For every entity and tracking player, the last position and rotation sent is remembered. Each
+ * {@linkplain #update(Entity) update} then sends either:
+ * <ul>
+ *     <li>nothing, if the entity didn't move or rotate;</li>
+ *     <li>the position change as 3 {@code short}s in 1/{@value PacketBufUtil#QUANTIZED_STEPS_PER_BLOCK} of a
+ *     block, if the entity moved less than 8 blocks on every axis;</li>
+ *     <li>the absolute position (written with {@link PacketBufUtil#writeVec3d(PacketByteBuf,
+ *     net.minecraft.util.math.Vec3d)}) otherwise, for the first update sent to a player, and periodically to correct
+ *     any accumulated error.</li>
+ * </ul>
+ * The rotation is only sent if it changed.<p>
+ * What was last sent is forgotten automatically when a player stops tracking an entity, and players and entities
+ * are only weakly referenced, so a player that disconnects or respawns (which replaces the player entity) doesn't
+ * keep anything alive.<br>
+ * Since every instance listens for players that stop tracking entities, instances should be created once (for
+ * example, in a {@code static final} field alongside the packet ID), not per entity.<p>
+ * Make sure you register your {@code packetID} on the client-side with
+ * {@link adudecalledleo.lionutils.client.network.ClientEntityMovementSync#register(Identifier)
+ * ClientEntityMovementSync.register(Identifier)}!<p>
+ * Instances of this class should only be used from the server thread.
+ *
+ * @since 7.1.0
+ */
+@RequiresFabricAPI
+public final class EntityMovementSync {
+    /**
+     * The default amount of position changes sent before the absolute position is sent again.
+     */
+    public static final int DEFAULT_ABSOLUTE_INTERVAL = 60;
+
+    private static final class State {
+        long x, y, z;
+        byte pitch, yaw;
+        int sinceAbsolute;
+    }
+
+    private final Identifier packetID;
+    private final int absoluteInterval;
+    private final Map<Entity, Map<ServerPlayerEntity, State>> states;
+
+    private EntityMovementSync(Identifier packetID, int absoluteInterval) {
+        this.packetID = packetID;
+        this.absoluteInterval = absoluteInterval;
+        states = new WeakHashMap<>();
+        EntityTrackingListeners.addStopListener(this::stopTracking);
+    }
+
+    /**
+     * Creates a new movement synchronizer.
+     *
+     * @param packetID
+     *         movement packet ID
+     * @param absoluteInterval
+     *         amount of position changes sent before the absolute position is sent again
+     * @return a new movement synchronizer
+     */
+    public static EntityMovementSync create(Identifier packetID, int absoluteInterval) {
+        Objects.requireNonNull(packetID, "packetID == null!");
+        if (absoluteInterval <= 0)
+            throw new IllegalArgumentException("absoluteInterval must be positive (was " + absoluteInterval + ")!");
+        return new EntityMovementSync(packetID, absoluteInterval);
+    }
+
+    /**
+     * Creates a new movement synchronizer that sends the absolute position every
+     * {@value #DEFAULT_ABSOLUTE_INTERVAL} position changes.
+     *
+     * @param packetID
+     *         movement packet ID
+     * @return a new movement synchronizer
+     */
+    public static EntityMovementSync create(Identifier packetID) {
+        return create(packetID, DEFAULT_ABSOLUTE_INTERVAL);
+    }
+
+    /**
+     * Sends the entity's position and rotation to every player tracking it, if they changed.<br>
+     * Should be called at the end of the entity's {@link Entity#tick() tick()} method.
+     *
+     * @param e
+     *         entity to synchronize
+     */
+    public void update(Entity e) {
+        if (e.world.isClient)
+            throw new IllegalStateException("EntityMovementSync.update called on the logical client!");
+        PlayerStream.watching(e).forEach(player -> update(e, (ServerPlayerEntity) player));
+    }
+
+    /**
+     * Sends the entity's position and rotation to a specific player, if they changed.
+     *
+     * @param e
+     *         entity to synchronize
+     * @param player
+     *         player to send update to
+     */
+    public void update(Entity e, ServerPlayerEntity player) {
+        // respawned players keep their entity ID (and so are equal to the old player entity), so compare by identity
+        Map<ServerPlayerEntity, State> playerStates = states.computeIfAbsent(e,
+                k -> new MapMaker().weakKeys().makeMap());
+        State state = playerStates.get(player);
+        long x = quantize(e.getX()), y = quantize(e.getY()), z = quantize(e.getZ());
+        byte pitch = PacketBufUtil.packAngle(e.pitch), yaw = PacketBufUtil.packAngle(e.yaw);
+        int flags;
+        if (state == null) {
+            state = new State();
+            playerStates.put(player, state);
+            flags = FLAG_ABSOLUTE | FLAG_ROTATION;
+        } else {
+            flags = 0;
+            long dx = x - state.x, dy = y - state.y, dz = z - state.z;
+            if ((dx | dy | dz) != 0) {
+                if (++state.sinceAbsolute >= absoluteInterval || !fitsShort(dx) || !fitsShort(dy) || !fitsShort(dz))
+                    flags |= FLAG_ABSOLUTE;
+                else
+                    flags |= FLAG_DELTA;
+            }
+            if (pitch != state.pitch || yaw != state.yaw)
+                flags |= FLAG_ROTATION;
+            if (flags == 0)
+                return;
+        }
+        int entityId = e.getEntityId();
+        PacketByteBuf byteBuf = PacketBufUtil.allocate(PacketByteBuf.getVarIntSizeBytes(entityId) + 1
+                + ((flags & FLAG_ABSOLUTE) != 0 ? 24 : 0)
+                + ((flags & FLAG_DELTA) != 0 ? 6 : 0)
+                + ((flags & FLAG_ROTATION) != 0 ? 2 : 0));
+        byteBuf.writeVarInt(entityId);
+        byteBuf.writeByte(flags);
+        if ((flags & FLAG_ABSOLUTE) != 0) {
+            PacketBufUtil.writeVec3d(byteBuf, e.getPos());
+            state.sinceAbsolute = 0;
+        } else if ((flags & FLAG_DELTA) != 0) {
+            byteBuf.writeShort((int) (x - state.x));
+            byteBuf.writeShort((int) (y - state.y));
+            byteBuf.writeShort((int) (z - state.z));
+        }
+        if ((flags & FLAG_ROTATION) != 0) {
+            byteBuf.writeByte(pitch);
+            byteBuf.writeByte(yaw);
+        }
+        state.x = x;
+        state.y = y;
+        state.z = z;
+        state.pitch = pitch;
+        state.yaw = yaw;
+        ServerSidePacketRegistry.INSTANCE.sendToPlayer(player, packetID, byteBuf);
+    }
+
+    private static boolean fitsShort(long v) {
+        return v >= Short.MIN_VALUE && v <= Short.MAX_VALUE;
+    }
+
+    private void stopTracking(Entity e, ServerPlayerEntity player) {
+        Map<ServerPlayerEntity, State> playerStates = states.get(e);
+        if (playerStates != null)
+            playerStates.remove(player);
+    }
+
+    /**
+     * Forgets everything that was sent about an entity.<br>
+     * Entities are forgotten automatically once they're garbage collected, so calling this is optional.
+     *
+     * @param e
+     *         entity
+     */
+    public void forget(Entity e) {
+        states.remove(e);
+    }
+}
@@ -2,12 +2,23 @@ package adudecalledleo.lionutils.network;
 
 import adudecalledleo.lionutils.InitializerUtil;
 import adudecalledleo.lionutils.LoggerUtil;
+import adudecalledleo.lionutils.internal.network.NegativeProfileCache;
+import adudecalledleo.lionutils.internal.network.ProfileFrontCache;
+import adudecalledleo.lionutils.internal.network.UserCacheSaveBatch;
+import com.google.common.collect.Iterables;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.minecraft.MinecraftSessionService;
+import com.mojang.authlib.properties.Property;
 import net.minecraft.util.UserCache;
 import org.apache.logging.log4j.Logger;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Helper class for obtaining {@link GameProfile}s smartly.
@@ -20,10 +31,11 @@ public final class GameProfileUtil {
     }
 
     private static final Logger LOGGER = LoggerUtil.getLogger("LionUtils|GameProfileUtil");
+    private static final String TEXTURES = "textures";
 
-    private static MinecraftSessionService sessionService;
-    private static UserCache userCache;
-    private static boolean warnedAboutIncompleteProfile = false;
+    private static volatile MinecraftSessionService sessionService;
+    private static volatile UserCache userCache;
+    private static volatile boolean warnedAboutIncompleteProfile = false;
 
     /**
      * Sets the session service that we should use.<p>
@@ -38,13 +50,225 @@ public final class GameProfileUtil {
 
     /**
      * Sets the user cache we should use.<p>
-     * This is set automatically, so you shouldn't need to call this.
+     * This is set automatically, so you shouldn't need to call this.<p>
+     * Profiles that haven't been saved yet are saved to the old user cache (and the profile store) first. Saves that
+     * were scheduled for the old user cache are cancelled.
      *
      * @param userCache
-     *         user cache to use
+     *         user cache to use, or {@code null} to detach from the current one (for example, when the server stops)
      */
     public static void setUserCache(UserCache userCache) {
-        GameProfileUtil.userCache = userCache;
+        synchronized (PENDING_PROFILES) {
+            // finish writing to the old cache before switching (this also tolerates there being no old cache, in
+            //  which case the pending profiles still go to the profile store)
+            writePendingProfiles(GameProfileUtil.userCache);
+            ScheduledFuture<?> save = scheduledSave;
+            if (save != null) {
+                save.cancel(false);
+                scheduledSave = null;
+            }
+            SAVE_SCHEDULED.set(false);
+            PENDING_PROFILES.clear();
+            PENDING_BY_ID.clear();
+            PENDING_BY_NAME.clear();
+            FRONT_CACHE.clear();
+            GameProfileUtil.userCache = userCache;
+        }
+    }
+
+    /**
+     * The default maximum amount of profiles kept in memory.
+     *
+     * @since 7.1.0
+     */
+    public static final int DEFAULT_PROFILE_CACHE_SIZE = 2048;
+    /**
+     * The delay between a profile being fetched and it being saved to the user cache, in milliseconds.
+     *
+     * @since 7.1.0
+     */
+    public static final long PROFILE_SAVE_DELAY_MILLIS = 5000;
+
+    private static final ProfileFrontCache FRONT_CACHE = new ProfileFrontCache(DEFAULT_PROFILE_CACHE_SIZE);
+    private static final Queue<GameProfile> PENDING_PROFILES = new ConcurrentLinkedQueue<>();
+    // profiles waiting to be saved can still be looked up, even if the in-memory cache is disabled or evicted them
+    private static final Map<UUID, GameProfile> PENDING_BY_ID = new ConcurrentHashMap<>();
+    private static final Map<String, GameProfile> PENDING_BY_NAME = new ConcurrentHashMap<>();
+    private static final AtomicBoolean SAVE_SCHEDULED = new AtomicBoolean();
+    // guarded by PENDING_PROFILES
+    private static ScheduledFuture<?> scheduledSave;
+
+    private static final class SaveExecutorHolder {
+        static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "LionUtils|GameProfileUtil-Save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the maximum amount of profiles kept in memory.<p>
+     * Profiles in memory are looked up without locking, in front of the user cache. Profiles that weren't used
+     * recently are evicted once the maximum is exceeded.<br>
+     * Setting this to 0 disables the in-memory cache. Profiles that were just fetched can still be looked up until
+     * they're saved to the user cache, either way.
+     *
+     * @param maxSize
+     *         maximum amount of profiles to keep in memory
+     * @since 7.1.0
+     */
+    public static void setProfileCacheSize(int maxSize) {
+        FRONT_CACHE.setMaxSize(maxSize);
+    }
+
+    private static volatile ProfileStore profileStore;
+
+    /**
+     * Sets the persistent store profiles should be kept in, in addition to the user cache.<p>
+     * Profiles are looked up in the store before asking the user cache or the session service, and every profile
+     * fetched from the session service is stored (with its skin textures) in the background.<br>
+     * The store is not closed when it's replaced - that's up to the caller.
+     *
+     * @param profileStore
+     *         profile store to use, or {@code null} to not use a store
+     * @since 7.1.0
+     */
+    public static void setProfileStore(ProfileStore profileStore) {
+        synchronized (PENDING_PROFILES) {
+            // pending profiles have to be written to the old store as well
+            writePendingProfiles(userCache);
+            GameProfileUtil.profileStore = profileStore;
+        }
+    }
+
+    private static GameProfile getStoredProfile(UUID id) {
+        ProfileStore store = profileStore;
+        if (store == null || id == null)
+            return null;
+        try {
+            GameProfile profile = store.get(id);
+            if (profile != null)
+                FRONT_CACHE.put(profile);
+            return profile;
+        } catch (IOException e) {
+            LOGGER.error("Failed to read profile {} from profile store", "{" + id + "}", e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets a player's skin textures, if they're cached.<p>
+     * This never contacts the session service.
+     *
+     * @param id
+     *         player UUID, may be {@code null}
+     * @return the player's {@code textures} property, or {@code null} if it isn't cached (or {@code id} is
+     *         {@code null})
+     *
+     * @since 7.1.0
+     */
+    public static Property getCachedTextures(UUID id) {
+        if (id == null)
+            return null;
+        GameProfile profile = FRONT_CACHE.getById(id);
+        if (profile == null || profile.getProperties().get(TEXTURES).isEmpty())
+            profile = getStoredProfile(id);
+        if (profile == null)
+            return null;
+        return Iterables.getFirst(profile.getProperties().get(TEXTURES), null);
+    }
+
+    /**
+     * Adds a player's {@linkplain #getCachedTextures(UUID) cached skin textures} to a profile that doesn't have
+     * them.
+     *
+     * @param profile
+     *         profile to fill
+     * @return a copy of the profile with the cached textures added, or the same profile if it already has textures,
+     *         has no UUID, or if the textures aren't cached
+     *
+     * @since 7.1.0
+     */
+    public static GameProfile fillCachedTextures(GameProfile profile) {
+        if (profile.getId() == null || !profile.getProperties().get(TEXTURES).isEmpty())
+            return profile;
+        Property textures = getCachedTextures(profile.getId());
+        if (textures == null)
+            return profile;
+        GameProfile filled = new GameProfile(profile.getId(), profile.getName());
+        filled.getProperties().putAll(profile.getProperties());
+        filled.getProperties().put(TEXTURES, textures);
+        return filled;
+    }
+
+    private static void addToCache(GameProfile profile) {
+        FRONT_CACHE.put(profile);
+        // the user cache writes its file on every add, so batch them up and do it off-thread
+        PENDING_BY_ID.put(profile.getId(), profile);
+        PENDING_BY_NAME.put(profile.getName().toLowerCase(Locale.ROOT), profile);
+        PENDING_PROFILES.add(profile);
+        if (SAVE_SCHEDULED.compareAndSet(false, true)) {
+            synchronized (PENDING_PROFILES) {
+                UserCache cache = userCache;
+                try {
+                    scheduledSave = SaveExecutorHolder.EXECUTOR.schedule(() -> saveScheduledProfiles(cache),
+                            PROFILE_SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    SAVE_SCHEDULED.set(false);
+                    writePendingProfiles(cache);
+                }
+            }
+        }
+    }
+
+    private static void saveScheduledProfiles(UserCache cache) {
+        synchronized (PENDING_PROFILES) {
+            // the user cache was swapped since this save was scheduled, and the swap already saved everything to the
+            //  old cache - don't touch it again, its server might have stopped
+            if (cache != userCache)
+                return;
+            scheduledSave = null;
+            SAVE_SCHEDULED.set(false);
+            writePendingProfiles(cache);
+        }
+    }
+
+    /**
+     * Adds all recently fetched profiles to the user cache, and saves it.<p>
+     * This is called automatically, including when the server stops, so you shouldn't need to call this.
+     *
+     * @since 7.1.0
+     */
+    public static void savePendingProfiles() {
+        synchronized (PENDING_PROFILES) {
+            writePendingProfiles(userCache);
+        }
+    }
+
+    private static void writePendingProfiles(UserCache cache) {
+        ProfileStore store = profileStore;
+        boolean added = false;
+        UserCacheSaveBatch.begin();
+        try {
+            GameProfile profile;
+            while ((profile = PENDING_PROFILES.poll()) != null) {
+                if (cache != null)
+                    cache.add(profile);
+                if (store != null)
+                    store.put(profile);
+                PENDING_BY_ID.remove(profile.getId(), profile);
+                PENDING_BY_NAME.remove(profile.getName().toLowerCase(Locale.ROOT), profile);
+                added = true;
+            }
+            if (added && store != null)
+                store.sync();
+        } catch (IOException e) {
+            LOGGER.error("Failed to write profiles to profile store", e);
+        } finally {
+            UserCacheSaveBatch.end();
+        }
+        if (added && cache != null)
+            cache.save();
     }
 
     /**
@@ -57,32 +281,300 @@ public final class GameProfileUtil {
      * @return profile associated with the specified player
      */
     public static GameProfile getGameProfile(UUID id, String name) {
+        checkArguments(id, name);
+        GameProfile profile = getCachedProfile(id, name);
+        if (profile == null) {
+            // this profile failed to resolve recently, don't bother asking again
+            if (NEGATIVE_CACHE.contains(id, name))
+                return new GameProfile(id, name);
+            // if another thread is already fetching this profile, wait for it instead of asking again
+            CompletableFuture<GameProfile> inFlight = getInFlight(id, name);
+            if (inFlight != null)
+                return joinFetch(inFlight);
+            if (id != null)
+                profile = fetchProfileBlocking(IN_FLIGHT_BY_ID, id, id, name);
+            else
+                profile = fetchProfileBlocking(IN_FLIGHT_BY_NAME, nameKey(name), null, name);
+        }
+        return profile;
+    }
+
+    private static <K> GameProfile fetchProfileBlocking(ConcurrentMap<K, CompletableFuture<GameProfile>> inFlight,
+            K key, UUID id, String name) {
+        // register our fetch, so other threads asking for the same profile wait for it too
+        CompletableFuture<GameProfile> future = new CompletableFuture<>();
+        CompletableFuture<GameProfile> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null)
+            return joinFetch(existing);
+        try {
+            GameProfile profile = fetchProfile(id, name);
+            future.complete(profile);
+            return profile;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    // waits for another thread's fetch, failing like the fetch itself did instead of with a CompletionException
+    private static GameProfile joinFetch(CompletableFuture<GameProfile> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private static void checkArguments(UUID id, String name) {
         if (sessionService == null || userCache == null)
             throw new IllegalStateException("GameProfileUtil hasn't been initialized yet! Are you calling this outside a world?");
         if (id == null && name == null)
             throw new IllegalArgumentException("Either ID or name need to be non-null!");
+    }
+
+    private static GameProfile getFrontCachedProfile(UUID id, String name) {
         GameProfile profile = null;
         if (id != null)
-            profile = userCache.getByUuid(id);
+            profile = FRONT_CACHE.getById(id);
         if (profile == null && name != null)
-            profile = userCache.findByName(name);
-        if (profile == null) {
-            // cache miss, get from session service and add to cache
-            profile = sessionService.fillProfileProperties(new GameProfile(id, name), true);
-            // warn about incomplete profile
-            // the reason for this "warned" boolean is so we don't spam the log if the player has no internet (SP)
-            if (!warnedAboutIncompleteProfile && !profile.isComplete()) {
-                warnedAboutIncompleteProfile = true;
-                LOGGER.warn("getGameProfile: sessionService.fillProfileProperties failed, profile is incomplete. " +
-                        "id = {}, name = \"{}\"", "{" + id + "}", name);
-            } else if (profile.isComplete()) {
-                warnedAboutIncompleteProfile = false;
-                userCache.add(profile);
-            }
+            profile = FRONT_CACHE.getByName(name);
+        if (profile == null && id != null)
+            profile = PENDING_BY_ID.get(id);
+        if (profile == null && name != null)
+            profile = PENDING_BY_NAME.get(name.toLowerCase(Locale.ROOT));
+        return profile;
+    }
+
+    private static GameProfile getCachedProfile(UUID id, String name) {
+        GameProfile profile = getFrontCachedProfile(id, name);
+        if (profile != null)
+            return profile;
+        profile = getStoredProfile(id);
+        if (profile != null)
+            return profile;
+        // read once, the server might stop (and detach its cache) while we're looking
+        UserCache cache = userCache;
+        if (cache == null)
+            return null;
+        if (id != null)
+            profile = cache.getByUuid(id);
+        if (profile == null && name != null)
+            profile = cache.findByName(name);
+        if (profile != null)
+            FRONT_CACHE.put(profile);
+        return profile;
+    }
+
+    private static GameProfile fetchProfile(UUID id, String name) {
+        // cache miss, get from session service and add to cache
+        GameProfile profile = sessionService.fillProfileProperties(new GameProfile(id, name), true);
+        // warn about incomplete profile
+        // the reason for this "warned" boolean is so we don't spam the log if the player has no internet (SP)
+        if (!profile.isComplete())
+            NEGATIVE_CACHE.add(id, name);
+        if (!warnedAboutIncompleteProfile && !profile.isComplete()) {
+            warnedAboutIncompleteProfile = true;
+            LOGGER.warn("getGameProfile: sessionService.fillProfileProperties failed, profile is incomplete. " +
+                    "id = {}, name = \"{}\"", "{" + id + "}", name);
+        } else if (profile.isComplete()) {
+            warnedAboutIncompleteProfile = false;
+            addToCache(profile);
         }
         return profile;
     }
 
+    /**
+     * The default amount of time a profile that failed to resolve is remembered for, in minutes.
+     *
+     * @since 7.1.0
+     */
+    public static final long DEFAULT_NEGATIVE_CACHE_TTL_MINUTES = 10;
+    /**
+     * The default maximum amount of profiles that failed to resolve to remember.
+     *
+     * @since 7.1.0
+     */
+    public static final int DEFAULT_NEGATIVE_CACHE_MAX_SIZE = 4096;
+
+    private static final NegativeProfileCache NEGATIVE_CACHE = new NegativeProfileCache(
+            DEFAULT_NEGATIVE_CACHE_TTL_MINUTES, TimeUnit.MINUTES, DEFAULT_NEGATIVE_CACHE_MAX_SIZE);
+
+    /**
+     * Configures the negative cache.<p>
+     * Profiles that fail to resolve (for example, because the player's account was deleted) are remembered for a
+     * while, by UUID and by name (ignoring case), so looking them up again doesn't need to ask the session
+     * service.<br>
+     * Setting either {@code ttl} or {@code maxSize} to 0 disables the negative cache.
+     *
+     * @param ttl
+     *         amount of time to remember failed profiles for
+     * @param unit
+     *         unit of {@code ttl}
+     * @param maxSize
+     *         maximum amount of failed profiles to remember
+     * @since 7.1.0
+     */
+    public static void configureNegativeCache(long ttl, TimeUnit unit, int maxSize) {
+        Objects.requireNonNull(unit, "unit == null!");
+        NEGATIVE_CACHE.configure(ttl, unit, maxSize);
+    }
+
+    /**
+     * Forgets every profile that failed to resolve.
+     *
+     * @since 7.1.0
+     */
+    public static void clearNegativeCache() {
+        NEGATIVE_CACHE.clear();
+    }
+
+    /**
+     * Gets the amount of lookups that were answered by the negative cache.
+     *
+     * @return negative cache hit count
+     *
+     * @since 7.1.0
+     */
+    public static long getNegativeCacheHits() {
+        return NEGATIVE_CACHE.getHits();
+    }
+
+    /**
+     * Gets the amount of lookups that weren't answered by the negative cache, and had to ask the session service.
+     *
+     * @return negative cache miss count
+     *
+     * @since 7.1.0
+     */
+    public static long getNegativeCacheMisses() {
+        return NEGATIVE_CACHE.getMisses();
+    }
+
+    /**
+     * The maximum amount of threads used to fetch profiles asynchronously.
+     *
+     * @since 7.1.0
+     */
+    public static final int ASYNC_THREAD_COUNT = 2;
+    /**
+     * The maximum amount of asynchronous profile fetches waiting for a thread.<p>
+     * Once this many fetches are waiting, further {@linkplain #getGameProfileAsync(UUID, String) asynchronous
+     * requests} for profiles that aren't cached or already being fetched fail immediately, instead of piling up.
+     *
+     * @since 7.1.0
+     */
+    public static final int ASYNC_QUEUE_CAPACITY = 1024;
+
+    private static final class ExecutorHolder {
+        static final ExecutorService EXECUTOR;
+
+        static {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREAD_COUNT, ASYNC_THREAD_COUNT,
+                    30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "LionUtils|GameProfileUtil-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
+
+    private static final ConcurrentMap<UUID, CompletableFuture<GameProfile>> IN_FLIGHT_BY_ID =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CompletableFuture<GameProfile>> IN_FLIGHT_BY_NAME =
+            new ConcurrentHashMap<>();
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static CompletableFuture<GameProfile> getInFlight(UUID id, String name) {
+        CompletableFuture<GameProfile> future = null;
+        if (id != null)
+            future = IN_FLIGHT_BY_ID.get(id);
+        if (future == null && name != null)
+            future = IN_FLIGHT_BY_NAME.get(nameKey(name));
+        return future;
+    }
+
+    /**
+     * Gets a {@link GameProfile} asynchronously. Accepts either a UUID, a name, or both - but not neither!<p>
+     * If the profile is cached, the returned future is already completed. Otherwise, the profile is fetched on a
+     * background thread; concurrent requests for the same profile share a single fetch. If
+     * {@value #ASYNC_QUEUE_CAPACITY} fetches are already waiting for a thread, the returned future fails with a
+     * {@link RejectedExecutionException}.<br>
+     * Dependent actions of the returned future may run on the background thread, so make sure to get back on the
+     * right thread (for example, with {@link net.minecraft.server.MinecraftServer#execute(Runnable)
+     * MinecraftServer.execute(Runnable)}) before touching the game's state.
+     *
+     * @param id
+     *         player UUID
+     * @param name
+     *         player name
+     * @return a future that completes with the profile associated with the specified player
+     *
+     * @since 7.1.0
+     */
+    public static CompletableFuture<GameProfile> getGameProfileAsync(UUID id, String name) {
+        checkArguments(id, name);
+        GameProfile profile = getFrontCachedProfile(id, name);
+        if (profile == null)
+            profile = getStoredProfile(id);
+        // only look up by UUID here - the user cache goes to Mojang's servers if a name isn't cached
+        UserCache cache = userCache;
+        if (profile == null && id != null && cache != null) {
+            profile = cache.getByUuid(id);
+            if (profile != null)
+                FRONT_CACHE.put(profile);
+        }
+        if (profile != null)
+            return CompletableFuture.completedFuture(profile);
+        if (NEGATIVE_CACHE.contains(id, name))
+            return CompletableFuture.completedFuture(new GameProfile(id, name));
+        CompletableFuture<GameProfile> future = getInFlight(id, name);
+        if (future != null)
+            return future;
+        if (id != null)
+            return fetchProfileAsync(IN_FLIGHT_BY_ID, id, id, name);
+        else
+            return fetchProfileAsync(IN_FLIGHT_BY_NAME, nameKey(name), null, name);
+    }
+
+    private static <K> CompletableFuture<GameProfile> fetchProfileAsync(
+            ConcurrentMap<K, CompletableFuture<GameProfile>> inFlight, K key, UUID id, String name) {
+        CompletableFuture<GameProfile> future = new CompletableFuture<>();
+        CompletableFuture<GameProfile> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null)
+            return existing;
+        try {
+            ExecutorHolder.EXECUTOR.execute(() -> {
+                try {
+                    GameProfile profile = getCachedProfile(id, name);
+                    if (profile == null)
+                        profile = fetchProfile(id, name);
+                    future.complete(profile);
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /**
      * Default return value of {@link #getPlayerName(UUID)} if something goes wrong.<p>
      * This name is illegal, as it contains characters which are not normally allowed in names.
@@ -104,6 +596,174 @@ public final class GameProfileUtil {
         return profile.getName();
     }
 
+    /**
+     * Gets a player's name from their UUID asynchronously.
+     *
+     * @param playerID
+     *         player UUID
+     * @return a future that completes with the player's name, or {@link #PLAYER_NAME_UNKNOWN} if something went
+     *         wrong (like the player not existing)
+     *
+     * @see #getGameProfileAsync(UUID, String)
+     * @since 7.1.0
+     */
+    public static CompletableFuture<String> getPlayerNameAsync(UUID playerID) {
+        return getGameProfileAsync(playerID, null).handle(GameProfileUtil::toPlayerName);
+    }
+
+    private static String toPlayerName(GameProfile profile, Throwable t) {
+        if (t != null || !profile.isComplete())
+            return PLAYER_NAME_UNKNOWN;
+        return profile.getName();
+    }
+
+    /**
+     * Gets a player's name from their UUID without blocking.<p>
+     * If the name is cached, it's returned immediately and the callback is <em>not</em> invoked. Otherwise,
+     * {@link #PLAYER_NAME_UNKNOWN} is returned as a placeholder, and the callback is invoked with the name once it's
+     * been fetched - possibly on a background thread.<br>
+     * If the fetch fails, even right away (because too many fetches are already waiting), the callback is invoked
+     * with {@link #PLAYER_NAME_UNKNOWN}.
+     *
+     * @param playerID
+     *         player UUID
+     * @param callback
+     *         callback to invoke with the player's name, if it isn't cached
+     * @return the player's name, or {@link #PLAYER_NAME_UNKNOWN} if it isn't cached or something went wrong
+     *
+     * @since 7.1.0
+     */
+    public static String getPlayerName(UUID playerID, Consumer<String> callback) {
+        Objects.requireNonNull(callback, "callback == null!");
+        CompletableFuture<GameProfile> future = getGameProfileAsync(playerID, null);
+        // a fetch that already failed (because it was rejected) still goes through the callback below
+        if (future.isDone() && !future.isCompletedExceptionally())
+            return toPlayerName(future.join(), null);
+        future.whenComplete((profile, t) -> callback.accept(toPlayerName(profile, t)));
+        return PLAYER_NAME_UNKNOWN;
+    }
+
+    /**
+     * Gets the names of multiple players from their UUIDs asynchronously.<p>
+     * Cached names are resolved immediately; the rest are fetched concurrently on background threads, a few at a
+     * time.
+     *
+     * @param playerIDs
+     *         player UUIDs
+     * @return a future that completes with a map of each player's UUID to their name, or
+     *         {@link #PLAYER_NAME_UNKNOWN} if something went wrong (like the player not existing). The map iterates in
+     *         the same order as {@code playerIDs}
+     *
+     * @see #getPlayerNameAsync(UUID)
+     * @since 7.1.0
+     */
+    public static CompletableFuture<Map<UUID, String>> getPlayerNamesAsync(Collection<UUID> playerIDs) {
+        return resolveAll(playerIDs, GameProfileUtil::getPlayerNameAsync, PLAYER_NAME_UNKNOWN);
+    }
+
+    /**
+     * Gets the names of multiple players from their UUIDs.
+     *
+     * @param playerIDs
+     *         player UUIDs
+     * @return a map of each player's UUID to their name, or {@link #PLAYER_NAME_UNKNOWN} if something went wrong
+     *         (like the player not existing). The map iterates in the same order as {@code playerIDs}
+     *
+     * @see #getPlayerNamesAsync(Collection)
+     * @since 7.1.0
+     */
+    public static Map<UUID, String> getPlayerNames(Collection<UUID> playerIDs) {
+        return getPlayerNamesAsync(playerIDs).join();
+    }
+
+    // enough to keep the async threads busy, without one batch filling up the executor's queue
+    private static final int BATCH_FETCH_WINDOW = ASYNC_THREAD_COUNT * 4;
+
+    private static <K, V> CompletableFuture<Map<K, V>> resolveAll(Collection<K> keys,
+            Function<K, CompletableFuture<V>> resolver, V unknown) {
+        Objects.requireNonNull(keys, "keys == null!");
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys)
+            result.put(key, null);
+        return new BatchResolution<>(new ArrayList<>(result.keySet()), resolver, unknown).start().thenApply(values -> {
+            int i = 0;
+            for (Map.Entry<K, V> entry : result.entrySet())
+                entry.setValue(values.get(i++));
+            return result;
+        });
+    }
+
+    /**
+     * Resolves keys in order. Cached keys resolve immediately, and at most {@link #BATCH_FETCH_WINDOW} fetches are
+     * in flight at once - the next one is started when one finishes.
+     */
+    private static final class BatchResolution<K, V> {
+        private final List<K> keys;
+        private final Function<K, CompletableFuture<V>> resolver;
+        private final V unknown;
+        private final List<V> values;
+        private final CompletableFuture<List<V>> done = new CompletableFuture<>();
+        // guarded by this
+        private int next, pending;
+
+        BatchResolution(List<K> keys, Function<K, CompletableFuture<V>> resolver, V unknown) {
+            this.keys = keys;
+            this.resolver = resolver;
+            this.unknown = unknown;
+            values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        }
+
+        CompletableFuture<List<V>> start() {
+            advance();
+            return done;
+        }
+
+        private void advance() {
+            while (true) {
+                int i;
+                synchronized (this) {
+                    if (next >= keys.size()) {
+                        if (pending == 0)
+                            done.complete(values);
+                        return;
+                    }
+                    if (pending >= BATCH_FETCH_WINDOW)
+                        return;
+                    i = next++;
+                    pending++;
+                }
+                CompletableFuture<V> future;
+                try {
+                    future = resolver.apply(keys.get(i));
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                    return;
+                }
+                if (future.isDone())
+                    finish(i, future);
+                else {
+                    future.whenComplete((v, t) -> {
+                        finish(i, future);
+                        advance();
+                    });
+                }
+            }
+        }
+
+        private void finish(int i, CompletableFuture<V> future) {
+            V value;
+            try {
+                value = future.join();
+            } catch (RuntimeException e) {
+                value = unknown;
+            }
+            synchronized (this) {
+                values.set(i, value);
+                pending--;
+            }
+        }
+    }
+
     /**
      * Default return value of {@link #findPlayerID(String)} if something goes wrong.<p>
      * This is a <a href="http://tools.ietf.org/html/rfc4122#section-4.1.7">nil UUID</a>.
@@ -127,4 +787,83 @@ public final class GameProfileUtil {
             return PLAYER_ID_UNKNOWN;
         return profile.getId();
     }
+
+    /**
+     * Gets a player's UUID from their name asynchronously.
+     *
+     * @param playerName
+     *         player name
+     * @return a future that completes with the player's UUID, or {@link #PLAYER_ID_UNKNOWN} if something went wrong
+     *         (like the player not existing)
+     *
+     * @see #getGameProfileAsync(UUID, String)
+     * @since 7.1.0
+     */
+    public static CompletableFuture<UUID> findPlayerIDAsync(String playerName) {
+        return getGameProfileAsync(null, playerName).handle(GameProfileUtil::toPlayerID);
+    }
+
+    private static UUID toPlayerID(GameProfile profile, Throwable t) {
+        if (t != null || !profile.isComplete())
+            return PLAYER_ID_UNKNOWN;
+        return profile.getId();
+    }
+
+    /**
+     * Gets a player's UUID from their name without blocking.<p>
+     * If the UUID is cached, it's returned immediately and the callback is <em>not</em> invoked. Otherwise,
+     * {@link #PLAYER_ID_UNKNOWN} is returned as a placeholder, and the callback is invoked with the UUID once it's
+     * been fetched - possibly on a background thread.<br>
+     * If the fetch fails, even right away (because too many fetches are already waiting), the callback is invoked
+     * with {@link #PLAYER_ID_UNKNOWN}.
+     *
+     * @param playerName
+     *         player name
+     * @param callback
+     *         callback to invoke with the player's UUID, if it isn't cached
+     * @return the player's UUID, or {@link #PLAYER_ID_UNKNOWN} if it isn't cached or something went wrong
+     *
+     * @since 7.1.0
+     */
+    public static UUID findPlayerID(String playerName, Consumer<UUID> callback) {
+        Objects.requireNonNull(callback, "callback == null!");
+        CompletableFuture<GameProfile> future = getGameProfileAsync(null, playerName);
+        // a fetch that already failed (because it was rejected) still goes through the callback below
+        if (future.isDone() && !future.isCompletedExceptionally())
+            return toPlayerID(future.join(), null);
+        future.whenComplete((profile, t) -> callback.accept(toPlayerID(profile, t)));
+        return PLAYER_ID_UNKNOWN;
+    }
+
+    /**
+     * Gets the UUIDs of multiple players from their names asynchronously.<p>
+     * The players are looked up concurrently on background threads, a few at a time.
+     *
+     * @param playerNames
+     *         player names
+     * @return a future that completes with a map of each player's name to their UUID, or {@link #PLAYER_ID_UNKNOWN}
+     *         if something went wrong (like the player not existing). The map iterates in the same order as
+     *         {@code playerNames}
+     *
+     * @see #findPlayerIDAsync(String)
+     * @since 7.1.0
+     */
+    public static CompletableFuture<Map<String, UUID>> findPlayerIDsAsync(Collection<String> playerNames) {
+        return resolveAll(playerNames, GameProfileUtil::findPlayerIDAsync, PLAYER_ID_UNKNOWN);
+    }
+
+    /**
+     * Gets the UUIDs of multiple players from their names.
+     *
+     * @param playerNames
+     *         player names
+     * @return a map of each player's name to their UUID, or {@link #PLAYER_ID_UNKNOWN} if something went wrong (like
+     *         the player not existing). The map iterates in the same order as {@code playerNames}
+     *
+     * @see #findPlayerIDsAsync(Collection)
+     * @since 7.1.0
+     */
+    public static Map<String, UUID> findPlayerIDs(Collection<String> playerNames) {
+        return findPlayerIDsAsync(playerNames).join();
+    }
 }
@@ -0,0 +1,55 @@
+package adudecalledleo.lionutils.network;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+
+import java.util.Objects;
+
+/**
+ * Allocates the buffers LionUtils' packet builders write packets into.<p>
+ * The allocator in use can be changed with {@link PacketBufUtil#setAllocator(PacketBufAllocator)}.
+ *
+ * @since 7.1.0
+ */
+@FunctionalInterface
+public interface PacketBufAllocator {
+    /**
+     * Allocates a buffer with room for at least the specified amount of bytes without needing to grow.<p>
+     * If the exact size of the packet isn't known ahead of time, {@code expectedSize} is an estimate.
+     *
+     * @param expectedSize
+     *         expected size of packet, in bytes
+     * @return a new buffer
+     */
+    PacketByteBuf allocate(int expectedSize);
+
+    /**
+     * Gets an allocator that allocates unpooled heap buffers with an initial capacity of exactly the expected size.
+     * <p>
+     * This is the default allocator.
+     *
+     * @return an exact-size allocator
+     */
+    static PacketBufAllocator exact() {
+        return expectedSize -> new PacketByteBuf(Unpooled.buffer(expectedSize));
+    }
+
+    /**
+     * Gets an allocator that allocates buffers with an initial capacity of exactly the expected size from a Netty
+     * {@link ByteBufAllocator}, such as {@link io.netty.buffer.PooledByteBufAllocator#DEFAULT
+     * PooledByteBufAllocator.DEFAULT}.<p>
+     * <strong>Note:</strong> a pooled buffer is only returned to its pool when it's released, and Minecraft never
+     * releases the buffers of custom payload packets - nor can they be released after sending, since the integrated
+     * server passes packets to the client without copying them. Only use a pooled allocator if whatever handles
+     * the packets takes care of releasing them.
+     *
+     * @param allocator
+     *         allocator to allocate from
+     * @return an allocator backed by the specified Netty allocator
+     */
+    static PacketBufAllocator of(ByteBufAllocator allocator) {
+        Objects.requireNonNull(allocator, "allocator == null!");
+        return expectedSize -> new PacketByteBuf(allocator.buffer(expectedSize));
+    }
+}
@@ -5,6 +5,8 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 
+import java.util.Objects;
+
 /**
  * Helper class for dealing with reading from and writing to {@link PacketByteBuf}s.
  *
@@ -15,6 +17,44 @@ public final class PacketBufUtil {
         InitializerUtil.utilCtor();
     }
 
+    private static volatile PacketBufAllocator allocator = PacketBufAllocator.exact();
+
+    /**
+     * Gets the allocator used by LionUtils' packet builders.
+     *
+     * @return the current allocator
+     *
+     * @since 7.1.0
+     */
+    public static PacketBufAllocator getAllocator() {
+        return allocator;
+    }
+
+    /**
+     * Sets the allocator used by LionUtils' packet builders.<br>
+     * Defaults to {@link PacketBufAllocator#exact()}.
+     *
+     * @param allocator
+     *         new allocator
+     * @since 7.1.0
+     */
+    public static void setAllocator(PacketBufAllocator allocator) {
+        PacketBufUtil.allocator = Objects.requireNonNull(allocator, "allocator == null!");
+    }
+
+    /**
+     * Allocates a buffer using the {@linkplain #getAllocator() current allocator}.
+     *
+     * @param expectedSize
+     *         expected size of packet, in bytes
+     * @return a new buffer
+     *
+     * @since 7.1.0
+     */
+    public static PacketByteBuf allocate(int expectedSize) {
+        return allocator.allocate(expectedSize);
+    }
+
     /**
      * Packs a floating-point angle into a {@code byte}.
      *
@@ -87,4 +127,314 @@ public final class PacketBufUtil {
         double z = byteBuf.readDouble();
         return new Vec3d(x, y, z);
     }
+
+    private static void checkRange(int capacity, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > capacity - length)
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + offset + " + " + length
+                    + ") is out of bounds for length " + capacity);
+    }
+
+    private static int readCount(PacketByteBuf byteBuf, int capacity, int offset, int stride) {
+        int count = byteBuf.readVarInt();
+        if (count < 0 || count > Integer.MAX_VALUE / stride)
+            throw new IllegalArgumentException("Invalid element count " + count);
+        checkRange(capacity, offset, count * stride);
+        return count;
+    }
+
+    /**
+     * Writes an array of angles to a {@link PacketByteBuf}, packed into one byte each.
+     *
+     * @param byteBuf
+     *         destination buffer
+     * @param angles
+     *         source angles
+     * @param offset
+     *         index of first angle to write
+     * @param count
+     *         number of angles to write
+     * @since 7.1.0
+     */
+    public static void writeAngles(PacketByteBuf byteBuf, float[] angles, int offset, int count) {
+        checkRange(angles.length, offset, count);
+        byteBuf.writeVarInt(count);
+        for (int i = 0; i < count; i++)
+            byteBuf.writeByte(packAngle(angles[offset + i]));
+    }
+
+    /**
+     * Reads an array of angles written by {@link #writeAngles(PacketByteBuf, float[], int, int)} from a
+     * {@link PacketByteBuf}.
+     *
+     * @param byteBuf
+     *         source buffer
+     * @param dst
+     *         destination array, must have room for all angles
+     * @param offset
+     *         index to start writing at
+     * @return the number of angles read
+     *
+     * @since 7.1.0
+     */
+    public static int readAngles(PacketByteBuf byteBuf, float[] dst, int offset) {
+        int count = readCount(byteBuf, dst.length, offset, 1);
+        for (int i = 0; i < count; i++)
+            dst[offset + i] = readAngle(byteBuf);
+        return count;
+    }
+
+    /**
+     * Writes an array of vectors to a {@link PacketByteBuf} as raw {@code double}s.<p>
+     * Vectors are stored in {@code xyz} as consecutive X, Y and Z coordinates.
+     *
+     * @param byteBuf
+     *         destination buffer
+     * @param xyz
+     *         source coordinates
+     * @param offset
+     *         index of first vector's X coordinate
+     * @param count
+     *         number of vectors to write
+     * @since 7.1.0
+     */
+    public static void writeVec3ds(PacketByteBuf byteBuf, double[] xyz, int offset, int count) {
+        if (count > Integer.MAX_VALUE / 3)
+            throw new IllegalArgumentException("count is too large: " + count);
+        checkRange(xyz.length, offset, count * 3);
+        byteBuf.writeVarInt(count);
+        byteBuf.ensureWritable(count * 24);
+        for (int i = 0; i < count * 3; i++)
+            byteBuf.writeDouble(xyz[offset + i]);
+    }
+
+    /**
+     * Reads an array of vectors written by {@link #writeVec3ds(PacketByteBuf, double[], int, int)} from a
+     * {@link PacketByteBuf}.
+     *
+     * @param byteBuf
+     *         source buffer
+     * @param dst
+     *         destination array, must have room for 3 coordinates per vector
+     * @param offset
+     *         index to write first vector's X coordinate to
+     * @return the number of vectors read
+     *
+     * @since 7.1.0
+     */
+    public static int readVec3ds(PacketByteBuf byteBuf, double[] dst, int offset) {
+        int count = readCount(byteBuf, dst.length, offset, 3);
+        for (int i = 0; i < count * 3; i++)
+            dst[offset + i] = byteBuf.readDouble();
+        return count;
+    }
+
+    /**
+     * The precision of {@linkplain #writeVec3dsQuantized(PacketByteBuf, double[], int, int, double, double, double)
+     * quantized vectors}, in steps per block.
+     *
+     * @since 7.1.0
+     */
+    public static final int QUANTIZED_STEPS_PER_BLOCK = 4096;
+    /**
+     * The maximum distance (per axis) a quantized vector can be from its origin.
+     *
+     * @since 7.1.0
+     */
+    public static final double QUANTIZED_MAX_DISTANCE = (double) Integer.MAX_VALUE / QUANTIZED_STEPS_PER_BLOCK / 2;
+
+    private static int quantize(double v, double origin) {
+        double d = v - origin;
+        if (!(Math.abs(d) <= QUANTIZED_MAX_DISTANCE))
+            throw new IllegalArgumentException("Coordinate " + v + " is too far from origin " + origin);
+        return (int) Math.round(d * QUANTIZED_STEPS_PER_BLOCK);
+    }
+
+    /**
+     * Writes a signed {@code int} to a {@link PacketByteBuf} as a variable-length integer.<p>
+     * Unlike {@link PacketByteBuf#writeVarInt(int)}, small negative values only take up a single byte.
+     *
+     * @param byteBuf
+     *         destination buffer
+     * @param value
+     *         value to write
+     * @since 7.1.0
+     */
+    public static void writeSignedVarInt(PacketByteBuf byteBuf, int value) {
+        byteBuf.writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Reads a signed {@code int} written by {@link #writeSignedVarInt(PacketByteBuf, int)} from a
+     * {@link PacketByteBuf}.
+     *
+     * @param byteBuf
+     *         source buffer
+     * @return the value
+     *
+     * @since 7.1.0
+     */
+    public static int readSignedVarInt(PacketByteBuf byteBuf) {
+        int v = byteBuf.readVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Gets the amount of bytes {@link #writeSignedVarInt(PacketByteBuf, int)} writes for a value.
+     *
+     * @param value
+     *         value
+     * @return the encoded size, in bytes
+     *
+     * @since 7.1.0
+     */
+    public static int getSignedVarIntSize(int value) {
+        return PacketByteBuf.getVarIntSizeBytes((value << 1) ^ (value >> 31));
+    }
+
+    private static int getCompactHorizontalSize(double v) {
+        return getSignedVarIntSize((int) (Math.round(v * QUANTIZED_STEPS_PER_BLOCK) >> 16)) + 2;
+    }
+
+    /**
+     * Gets the amount of bytes {@link #writeVec3dCompact(PacketByteBuf, Vec3d)} writes for a vector.
+     *
+     * @param vec3d
+     *         vector
+     * @return the encoded size, in bytes
+     *
+     * @since 7.1.0
+     */
+    public static int getVec3dCompactSize(Vec3d vec3d) {
+        return getCompactHorizontalSize(vec3d.x) + 4 + getCompactHorizontalSize(vec3d.z);
+    }
+
+    private static void writeCompactHorizontal(PacketByteBuf byteBuf, double v) {
+        long q = Math.round(v * QUANTIZED_STEPS_PER_BLOCK);
+        writeSignedVarInt(byteBuf, (int) (q >> 16));
+        byteBuf.writeShort((int) q);
+    }
+
+    private static double readCompactHorizontal(PacketByteBuf byteBuf) {
+        long chunk = readSignedVarInt(byteBuf);
+        int local = byteBuf.readUnsignedShort();
+        return (double) ((chunk << 16) | local) / QUANTIZED_STEPS_PER_BLOCK;
+    }
+
+    /**
+     * Writes a {@link Vec3d} to a {@link PacketByteBuf} in a compact, chunk-relative form.<p>
+     * The X and Z coordinates are stored as a variable-length chunk coordinate and a 2-byte offset into that
+     * chunk, and the Y coordinate as a 4-byte integer, all at 1/{@value #QUANTIZED_STEPS_PER_BLOCK} of a block
+     * precision. This takes 10 to 16 bytes for any position inside the world border, instead of 24.
+     *
+     * @param byteBuf
+     *         destination buffer
+     * @param vec3d
+     *         vector to write
+     * @throws IllegalArgumentException
+     *         if the Y coordinate is farther than {@link #QUANTIZED_MAX_DISTANCE} from 0
+     * @since 7.1.0
+     */
+    public static void writeVec3dCompact(PacketByteBuf byteBuf, Vec3d vec3d) {
+        writeCompactHorizontal(byteBuf, vec3d.x);
+        byteBuf.writeInt(quantize(vec3d.y, 0));
+        writeCompactHorizontal(byteBuf, vec3d.z);
+    }
+
+    /**
+     * Reads a {@link Vec3d} written by {@link #writeVec3dCompact(PacketByteBuf, Vec3d)} from a
+     * {@link PacketByteBuf}.
+     *
+     * @param byteBuf
+     *         source buffer
+     * @return the vector
+     *
+     * @since 7.1.0
+     */
+    public static Vec3d readVec3dCompact(PacketByteBuf byteBuf) {
+        double x = readCompactHorizontal(byteBuf);
+        double y = (double) byteBuf.readInt() / QUANTIZED_STEPS_PER_BLOCK;
+        double z = readCompactHorizontal(byteBuf);
+        return new Vec3d(x, y, z);
+    }
+
+    /**
+     * Writes an array of vectors to a {@link PacketByteBuf} in a compact, quantized form.<p>
+     * The origin is written first, as raw {@code double}s. Each coordinate is then rounded to
+     * 1/{@value #QUANTIZED_STEPS_PER_BLOCK} of a block relative to the origin, and stored as a variable-length
+     * difference from the same coordinate of the previous vector. Vectors that are near each other (such as the
+     * points of a particle trail) take only a few bytes each.<p>
+     * Vectors are stored in {@code xyz} as consecutive X, Y and Z coordinates.
+     *
+     * @param byteBuf
+     *         destination buffer
+     * @param xyz
+     *         source coordinates
+     * @param offset
+     *         index of first vector's X coordinate
+     * @param count
+     *         number of vectors to write
+     * @param originX
+     *         origin X coordinate
+     * @param originY
+     *         origin Y coordinate
+     * @param originZ
+     *         origin Z coordinate
+     * @throws IllegalArgumentException
+     *         if a coordinate is farther than {@link #QUANTIZED_MAX_DISTANCE} from the origin
+     * @since 7.1.0
+     */
+    public static void writeVec3dsQuantized(PacketByteBuf byteBuf, double[] xyz, int offset, int count,
+            double originX, double originY, double originZ) {
+        if (count > Integer.MAX_VALUE / 3)
+            throw new IllegalArgumentException("count is too large: " + count);
+        checkRange(xyz.length, offset, count * 3);
+        byteBuf.writeVarInt(count);
+        byteBuf.writeDouble(originX);
+        byteBuf.writeDouble(originY);
+        byteBuf.writeDouble(originZ);
+        int prevX = 0, prevY = 0, prevZ = 0;
+        for (int i = offset, end = offset + count * 3; i < end; i += 3) {
+            int x = quantize(xyz[i], originX);
+            int y = quantize(xyz[i + 1], originY);
+            int z = quantize(xyz[i + 2], originZ);
+            writeSignedVarInt(byteBuf, x - prevX);
+            writeSignedVarInt(byteBuf, y - prevY);
+            writeSignedVarInt(byteBuf, z - prevZ);
+            prevX = x;
+            prevY = y;
+            prevZ = z;
+        }
+    }
+
+    /**
+     * Reads an array of vectors written by
+     * {@link #writeVec3dsQuantized(PacketByteBuf, double[], int, int, double, double, double)} from a
+     * {@link PacketByteBuf}.
+     *
+     * @param byteBuf
+     *         source buffer
+     * @param dst
+     *         destination array, must have room for 3 coordinates per vector
+     * @param offset
+     *         index to write first vector's X coordinate to
+     * @return the number of vectors read
+     *
+     * @since 7.1.0
+     */
+    public static int readVec3dsQuantized(PacketByteBuf byteBuf, double[] dst, int offset) {
+        int count = readCount(byteBuf, dst.length, offset, 3);
+        double originX = byteBuf.readDouble();
+        double originY = byteBuf.readDouble();
+        double originZ = byteBuf.readDouble();
+        int x = 0, y = 0, z = 0;
+        for (int i = offset, end = offset + count * 3; i < end; i += 3) {
+            x += readSignedVarInt(byteBuf);
+            y += readSignedVarInt(byteBuf);
+            z += readSignedVarInt(byteBuf);
+            dst[i] = originX + (double) x / QUANTIZED_STEPS_PER_BLOCK;
+            dst[i + 1] = originY + (double) y / QUANTIZED_STEPS_PER_BLOCK;
+            dst[i + 2] = originZ + (double) z / QUANTIZED_STEPS_PER_BLOCK;
+        }
+        return count;
+    }
 }
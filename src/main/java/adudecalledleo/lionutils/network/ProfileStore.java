@@ -0,0 +1,511 @@
+package adudecalledleo.lionutils.network;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A persistent store of player profiles, including their skin textures.<p>
+ * Profiles are kept in an append-only log file, and found through a hash index (from UUID to position in the log)
+ * that is memory-mapped instead of being read into memory. This means opening a store takes the same amount of
+ * time no matter how many profiles it contains, and looking up a profile only reads that profile from disk.<p>
+ * To have {@link GameProfileUtil} use a store, pass it to {@link GameProfileUtil#setProfileStore(ProfileStore)}.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @since 7.1.0
+ */
+public final class ProfileStore implements Closeable {
+    private static final String LOG_FILE_NAME = "profiles.log";
+    private static final String INDEX_FILE_PREFIX = "profiles-";
+    private static final String INDEX_FILE_SUFFIX = ".idx";
+
+    private static final int LOG_MAGIC = 0x4C55504C; // "LUPL"
+    private static final int INDEX_MAGIC = 0x4C555049; // "LUPI"
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER_SIZE = 8;
+    // UUID, then name, textures and signature lengths
+    private static final int MIN_RECORD_SIZE = 16 + 4 * 3;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    // magic, version, capacity, count, log end
+    private static final int INDEX_HEADER_SIZE = 24;
+    // UUID most significant bits, UUID least significant bits, log position + 1 (0 means empty)
+    private static final int SLOT_SIZE = 24;
+    private static final int MIN_CAPACITY = 1024;
+    private static final String TEXTURES = "textures";
+
+    private final Path directory;
+    private final FileChannel log;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Path indexPath;
+    private MappedByteBuffer index;
+    private int capacity, count;
+    private long logEnd;
+
+    private ProfileStore(Path directory, FileChannel log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /**
+     * Opens a profile store, creating it if it doesn't exist.
+     *
+     * @param directory
+     *         directory to keep the store's files in
+     * @return the profile store
+     *
+     * @throws IOException
+     *         if an I/O error occurs
+     */
+    public static ProfileStore open(Path directory) throws IOException {
+        Objects.requireNonNull(directory, "directory == null!");
+        Files.createDirectories(directory);
+        FileChannel log = FileChannel.open(directory.resolve(LOG_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ProfileStore store = new ProfileStore(directory, log);
+        try {
+            store.init();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void init() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        if (log.size() < LOG_HEADER_SIZE) {
+            log.truncate(0);
+            header.putInt(LOG_MAGIC).putInt(VERSION).flip();
+            writeFully(header, 0);
+        } else {
+            readFully(header, 0);
+            header.flip();
+            if (header.getInt() != LOG_MAGIC || header.getInt() != VERSION)
+                throw new IOException("\"" + directory.resolve(LOG_FILE_NAME) + "\" is not a profile log!");
+        }
+        if (!openIndex()) {
+            // no usable index, build a new one from the log
+            createIndex(MIN_CAPACITY);
+            logEnd = LOG_HEADER_SIZE;
+        }
+        // index any records that were appended after the index was last updated (for example, if we crashed)
+        scanLog();
+    }
+
+    private static int getCapacity(Path indexPath) {
+        String name = indexPath.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(INDEX_FILE_PREFIX.length(),
+                    name.length() - INDEX_FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean openIndex() throws IOException {
+        Path best = null;
+        int bestCapacity = -1;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                INDEX_FILE_PREFIX + "*" + INDEX_FILE_SUFFIX)) {
+            for (Path path : stream) {
+                int pathCapacity = getCapacity(path);
+                if (pathCapacity > bestCapacity) {
+                    if (best != null)
+                        Files.deleteIfExists(best);
+                    best = path;
+                    bestCapacity = pathCapacity;
+                } else
+                    Files.deleteIfExists(path);
+            }
+        }
+        if (best == null)
+            return false;
+        if (bestCapacity >= MIN_CAPACITY && Integer.bitCount(bestCapacity) == 1
+                && Files.size(best) == INDEX_HEADER_SIZE + (long) bestCapacity * SLOT_SIZE) {
+            MappedByteBuffer buf = map(best, bestCapacity);
+            if (buf.getInt(0) == INDEX_MAGIC && buf.getInt(4) == VERSION && buf.getInt(8) == bestCapacity) {
+                long end = buf.getLong(16);
+                // if the index is ahead of the log, the log lost data and the index can't be trusted
+                if (end >= LOG_HEADER_SIZE && end <= log.size()) {
+                    indexPath = best;
+                    index = buf;
+                    capacity = bestCapacity;
+                    count = buf.getInt(12);
+                    logEnd = end;
+                    return true;
+                }
+            }
+        }
+        Files.deleteIfExists(best);
+        return false;
+    }
+
+    private MappedByteBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        }
+    }
+
+    private void createIndex(int newCapacity) throws IOException {
+        Path newPath = directory.resolve(INDEX_FILE_PREFIX + newCapacity + INDEX_FILE_SUFFIX);
+        Files.deleteIfExists(newPath);
+        MappedByteBuffer newIndex = map(newPath, newCapacity);
+        newIndex.putInt(0, INDEX_MAGIC);
+        newIndex.putInt(4, VERSION);
+        newIndex.putInt(8, newCapacity);
+        MappedByteBuffer oldIndex = index;
+        int oldCapacity = capacity;
+        Path oldPath = indexPath;
+        index = newIndex;
+        indexPath = newPath;
+        capacity = newCapacity;
+        count = 0;
+        if (oldIndex != null) {
+            for (int i = 0; i < oldCapacity; i++) {
+                int pos = INDEX_HEADER_SIZE + i * SLOT_SIZE;
+                long offset = oldIndex.getLong(pos + 16);
+                if (offset != 0)
+                    putSlot(oldIndex.getLong(pos), oldIndex.getLong(pos + 8), offset - 1);
+            }
+        }
+        writeIndexHeader();
+        if (oldPath != null) {
+            try {
+                Files.deleteIfExists(oldPath);
+            } catch (IOException ignored) {
+                // might still be mapped (on Windows), will be cleaned up the next time the store is opened
+            }
+        }
+    }
+
+    private void writeIndexHeader() {
+        index.putInt(12, count);
+        index.putLong(16, logEnd);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int findSlot(long msb, long lsb) {
+        int mask = capacity - 1;
+        for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+            int pos = INDEX_HEADER_SIZE + i * SLOT_SIZE;
+            if (index.getLong(pos + 16) == 0 || (index.getLong(pos) == msb && index.getLong(pos + 8) == lsb))
+                return pos;
+        }
+    }
+
+    private static int slotIndex(int pos) {
+        return (pos - INDEX_HEADER_SIZE) / SLOT_SIZE;
+    }
+
+    private static int slotPos(int i) {
+        return INDEX_HEADER_SIZE + i * SLOT_SIZE;
+    }
+
+    private void putSlot(long msb, long lsb, long offset) {
+        int pos = findSlot(msb, lsb);
+        if (index.getLong(pos + 16) == 0) {
+            index.putLong(pos, msb);
+            index.putLong(pos + 8, lsb);
+            count++;
+        }
+        index.putLong(pos + 16, offset + 1);
+    }
+
+    private void removeSlot(int pos) {
+        // shift back any later entries in the probe sequence, so they can still be found
+        int mask = capacity - 1;
+        int i = slotIndex(pos);
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            int jPos = slotPos(j);
+            if (index.getLong(jPos + 16) == 0)
+                break;
+            int home = hash(index.getLong(jPos), index.getLong(jPos + 8)) & mask;
+            // entries whose home slot is cyclically in (i, j] are still reachable, leave them be
+            if (i <= j ? (i < home && home <= j) : (i < home || home <= j))
+                continue;
+            int iPos = slotPos(i);
+            index.putLong(iPos, index.getLong(jPos));
+            index.putLong(iPos + 8, index.getLong(jPos + 8));
+            index.putLong(iPos + 16, index.getLong(jPos + 16));
+            i = j;
+        }
+        int iPos = slotPos(i);
+        index.putLong(iPos, 0);
+        index.putLong(iPos + 8, 0);
+        index.putLong(iPos + 16, 0);
+        count--;
+        writeIndexHeader();
+    }
+
+    private void indexRecord(long msb, long lsb, long offset) throws IOException {
+        // keep the table at most half full, so probe sequences stay short
+        if (count + 1 > capacity / 2)
+            createIndex(capacity * 2);
+        putSlot(msb, lsb, offset);
+    }
+
+    private void scanLog() throws IOException {
+        long size = log.size();
+        ByteBuffer lengthBuf = ByteBuffer.allocate(4);
+        while (logEnd < size) {
+            lengthBuf.clear();
+            int length = -1;
+            if (size - logEnd >= 4) {
+                readFully(lengthBuf, logEnd);
+                length = lengthBuf.getInt(0);
+            }
+            if (length < MIN_RECORD_SIZE || length > MAX_RECORD_SIZE || logEnd + 4 + length > size) {
+                // incomplete record at the end of the log, throw it away
+                log.truncate(logEnd);
+                break;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            readFully(buf, logEnd + 4);
+            buf.flip();
+            long msb = buf.getLong(), lsb = buf.getLong();
+            // a record that doesn't hold a valid profile is skipped, the next one can still be read
+            if (readProfile(new UUID(msb, lsb), buf) != null)
+                indexRecord(msb, lsb, logEnd);
+            logEnd += 4 + length;
+        }
+        writeIndexHeader();
+    }
+
+    private void readFully(ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int read = log.read(buf, position);
+            if (read < 0)
+                throw new EOFException();
+            position += read;
+        }
+    }
+
+    private void writeFully(ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining())
+            position += log.write(buf, position);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (index == null)
+            throw new IOException("Profile store is closed!");
+    }
+
+    private static byte[] bytes(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null)
+            buf.putInt(-1);
+        else
+            buf.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buf) throws IOException {
+        if (buf.remaining() < 4)
+            throw new IOException("Corrupt profile record!");
+        int length = buf.getInt();
+        if (length < 0)
+            return null;
+        if (length > buf.remaining())
+            throw new IOException("Corrupt profile record!");
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static GameProfile readProfile(UUID id, ByteBuffer buf) {
+        String name, textures, signature;
+        try {
+            name = getString(buf);
+            textures = getString(buf);
+            signature = getString(buf);
+        } catch (IOException e) {
+            return null;
+        }
+        if (name == null)
+            return null;
+        GameProfile profile = new GameProfile(id, name);
+        if (textures != null)
+            profile.getProperties().put(TEXTURES, new Property(TEXTURES, textures, signature));
+        return profile;
+    }
+
+    private ByteBuffer readRecord(long msb, long lsb, long offset) throws IOException {
+        if (offset < LOG_HEADER_SIZE || offset + 4 > logEnd)
+            return null;
+        ByteBuffer lengthBuf = ByteBuffer.allocate(4);
+        readFully(lengthBuf, offset);
+        int length = lengthBuf.getInt(0);
+        if (length < MIN_RECORD_SIZE || length > MAX_RECORD_SIZE || offset + 4 + length > logEnd)
+            return null;
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        readFully(buf, offset + 4);
+        buf.flip();
+        if (buf.getLong() != msb || buf.getLong() != lsb)
+            return null;
+        return buf;
+    }
+
+    /**
+     * Gets a profile from this store.
+     *
+     * @param id
+     *         player UUID
+     * @return the player's profile (with its textures, if they were stored), or {@code null} if it isn't stored.<br>
+     * If the index points to a record that doesn't exist or doesn't hold a valid profile for this player (for
+     * example, because the index and log were restored from different backups), this also returns {@code null},
+     * and the index entry is removed.
+     *
+     * @throws IOException
+     *         if an I/O error occurs
+     */
+    public GameProfile get(UUID id) throws IOException {
+        Objects.requireNonNull(id, "id == null!");
+        long msb = id.getMostSignificantBits(), lsb = id.getLeastSignificantBits();
+        long offset;
+        ByteBuffer buf;
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            offset = index.getLong(findSlot(msb, lsb) + 16) - 1;
+            if (offset < 0)
+                return null;
+            buf = readRecord(msb, lsb, offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+        GameProfile profile = buf == null ? null : readProfile(id, buf);
+        if (profile == null)
+            removeBadSlot(msb, lsb, offset);
+        return profile;
+    }
+
+    private void removeBadSlot(long msb, long lsb, long offset) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int pos = findSlot(msb, lsb);
+            // the profile might have been stored again while we weren't holding the lock
+            if (index.getLong(pos + 16) == offset + 1)
+                removeSlot(pos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a profile (including its textures, if it has any), replacing the previously stored profile for the same
+     * player.
+     *
+     * @param profile
+     *         profile to store, must be {@linkplain GameProfile#isComplete() complete}
+     * @throws IOException
+     *         if an I/O error occurs
+     */
+    public void put(GameProfile profile) throws IOException {
+        if (!profile.isComplete())
+            throw new IllegalArgumentException("Profile must be complete!");
+        UUID id = profile.getId();
+        byte[] name = bytes(profile.getName());
+        byte[] textures = null, signature = null;
+        for (Property property : profile.getProperties().get(TEXTURES)) {
+            textures = bytes(property.getValue());
+            signature = bytes(property.getSignature());
+            break;
+        }
+        int length = 16 + 4 + name.length + 4 + (textures == null ? 0 : textures.length)
+                + 4 + (signature == null ? 0 : signature.length);
+        if (length > MAX_RECORD_SIZE)
+            throw new IllegalArgumentException("Profile is too large to store!");
+        ByteBuffer buf = ByteBuffer.allocate(4 + length);
+        buf.putInt(length).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        putBytes(buf, name);
+        putBytes(buf, textures);
+        putBytes(buf, signature);
+        buf.flip();
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            writeFully(buf, logEnd);
+            indexRecord(id.getMostSignificantBits(), id.getLeastSignificantBits(), logEnd);
+            logEnd += buf.capacity();
+            writeIndexHeader();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the amount of profiles in this store.
+     *
+     * @return profile count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces any changes to this store to be written to disk.
+     *
+     * @throws IOException
+     *         if an I/O error occurs
+     */
+    public void sync() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            log.force(false);
+            index.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes any changes to disk, and closes this store.
+     *
+     * @throws IOException
+     *         if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (index == null)
+                return;
+            log.force(false);
+            index.force();
+            index = null;
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package adudecalledleo.lionutils.serialize;
+
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Reads and writes objects from and to {@link CompoundTag}s, using a fixed list of fields.<p>
+ * Codecs are created with a {@link Builder} once (typically as a {@code static final} field), are immutable, and can
+ * be shared freely between threads. They don't use reflection, and don't allocate anything per call apart from what
+ * the fields' {@link NbtFieldCodec}s themselves allocate. Example usage:<pre>
+ * private static final NbtCodec&lt;MyBlockEntity&gt; CODEC = NbtCodec.builder(MyBlockEntity.class)
+ *         .field("Target", NbtFieldCodec.BLOCK_POS, be -&gt; be.target, (be, v) -&gt; be.target = v)
+ *         .field("Mode", NbtFieldCodec.ofEnum(Mode.class), be -&gt; be.mode, (be, v) -&gt; be.mode = v)
+ *         .intField("Progress", be -&gt; be.progress, (be, v) -&gt; be.progress = v)
+ *         .build();
+ *
+ * &#64;Override
+ * public CompoundTag toTag(CompoundTag tag) {
+ *     super.toTag(tag);
+ *     CODEC.write(this, tag);
+ *     return tag;
+ * }
+ * </pre>
+ *
+ * @param <T>
+ *         type of object
+ * @since 7.1.0
+ */
+public final class NbtCodec<T> {
+    private final Field<T>[] fields;
+
+    private NbtCodec(Field<T>[] fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Creates a new {@code NbtCodec.Builder}.
+     *
+     * @param type
+     *         type of object
+     * @param <T>
+     *         type of object
+     * @return a new builder instance
+     */
+    public static <T> Builder<T> builder(Class<T> type) {
+        Objects.requireNonNull(type, "type == null!");
+        return new Builder<>();
+    }
+
+    /**
+     * Writes an object's fields to a {@link CompoundTag}. Fields whose value is {@code null} are removed from the tag.
+     *
+     * @param obj
+     *         source object
+     * @param tag
+     *         destination tag
+     * @return the destination tag
+     */
+    public CompoundTag write(T obj, CompoundTag tag) {
+        for (Field<T> field : fields)
+            field.write(obj, tag);
+        return tag;
+    }
+
+    /**
+     * Writes an object's fields to a {@link CompoundTag}, skipping fields whose value is already stored in the tag.
+     *
+     * @param obj
+     *         source object
+     * @param tag
+     *         destination tag, usually the tag the object was last written to
+     * @return {@code true} if any field was written or removed, {@code false} if the tag was already up to date
+     */
+    public boolean writeChanged(T obj, CompoundTag tag) {
+        boolean changed = false;
+        for (Field<T> field : fields) {
+            if (field.writeIfChanged(obj, tag))
+                changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Reads an object's fields from a {@link CompoundTag}. Fields not present in the tag are left as-is.
+     *
+     * @param obj
+     *         destination object
+     * @param tag
+     *         source tag
+     * @return the destination object
+     */
+    public T read(T obj, CompoundTag tag) {
+        for (Field<T> field : fields)
+            field.read(obj, tag);
+        return obj;
+    }
+
+    private static abstract class Field<T> {
+        protected final String key;
+
+        protected Field(String key) {
+            this.key = key;
+        }
+
+        public abstract void write(T obj, CompoundTag tag);
+
+        public abstract boolean writeIfChanged(T obj, CompoundTag tag);
+
+        public abstract void read(T obj, CompoundTag tag);
+    }
+
+    private static final class ObjectField<T, V> extends Field<T> {
+        private final NbtFieldCodec<V> codec;
+        private final Function<T, V> getter;
+        private final BiConsumer<T, V> setter;
+
+        private ObjectField(String key, NbtFieldCodec<V> codec, Function<T, V> getter, BiConsumer<T, V> setter) {
+            super(key);
+            this.codec = codec;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public void write(T obj, CompoundTag tag) {
+            V value = getter.apply(obj);
+            if (value == null)
+                tag.remove(key);
+            else
+                codec.write(tag, key, value);
+        }
+
+        @Override
+        public boolean writeIfChanged(T obj, CompoundTag tag) {
+            V value = getter.apply(obj);
+            if (value == null) {
+                if (!tag.contains(key))
+                    return false;
+                tag.remove(key);
+                return true;
+            }
+            if (codec.isStored(tag, key, value))
+                return false;
+            codec.write(tag, key, value);
+            return true;
+        }
+
+        @Override
+        public void read(T obj, CompoundTag tag) {
+            if (codec.contains(tag, key))
+                setter.accept(obj, codec.read(tag, key));
+        }
+    }
+
+    private static final class IntField<T> extends Field<T> {
+        private final ToIntFunction<T> getter;
+        private final ObjIntConsumer<T> setter;
+
+        private IntField(String key, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            super(key);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public void write(T obj, CompoundTag tag) {
+            tag.putInt(key, getter.applyAsInt(obj));
+        }
+
+        @Override
+        public boolean writeIfChanged(T obj, CompoundTag tag) {
+            int value = getter.applyAsInt(obj);
+            if (tag.contains(key, /* NbtType.INT */ 3) && tag.getInt(key) == value)
+                return false;
+            tag.putInt(key, value);
+            return true;
+        }
+
+        @Override
+        public void read(T obj, CompoundTag tag) {
+            if (tag.contains(key, /* NbtType.NUMBER */ 99))
+                setter.accept(obj, tag.getInt(key));
+        }
+    }
+
+    private static final class LongField<T> extends Field<T> {
+        private final ToLongFunction<T> getter;
+        private final ObjLongConsumer<T> setter;
+
+        private LongField(String key, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+            super(key);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public void write(T obj, CompoundTag tag) {
+            tag.putLong(key, getter.applyAsLong(obj));
+        }
+
+        @Override
+        public boolean writeIfChanged(T obj, CompoundTag tag) {
+            long value = getter.applyAsLong(obj);
+            if (tag.contains(key, /* NbtType.LONG */ 4) && tag.getLong(key) == value)
+                return false;
+            tag.putLong(key, value);
+            return true;
+        }
+
+        @Override
+        public void read(T obj, CompoundTag tag) {
+            if (tag.contains(key, /* NbtType.NUMBER */ 99))
+                setter.accept(obj, tag.getLong(key));
+        }
+    }
+
+    private static final class BooleanField<T> extends Field<T> {
+        private final Predicate<T> getter;
+        private final BiConsumer<T, Boolean> setter;
+
+        private BooleanField(String key, Predicate<T> getter, BiConsumer<T, Boolean> setter) {
+            super(key);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public void write(T obj, CompoundTag tag) {
+            tag.putBoolean(key, getter.test(obj));
+        }
+
+        @Override
+        public boolean writeIfChanged(T obj, CompoundTag tag) {
+            boolean value = getter.test(obj);
+            if (tag.contains(key, /* NbtType.BYTE */ 1) && tag.getBoolean(key) == value)
+                return false;
+            tag.putBoolean(key, value);
+            return true;
+        }
+
+        @Override
+        public void read(T obj, CompoundTag tag) {
+            if (tag.contains(key, /* NbtType.NUMBER */ 99))
+                setter.accept(obj, tag.getBoolean(key)); // Boolean.TRUE/FALSE, so no allocation
+        }
+    }
+
+    /**
+     * Helper class for building {@link NbtCodec}s.
+     *
+     * @param <T>
+     *         type of object
+     */
+    public static final class Builder<T> {
+        private final List<Field<T>> fields;
+        private final Set<String> keys;
+
+        private Builder() {
+            fields = new ArrayList<>();
+            keys = new HashSet<>();
+        }
+
+        private Builder<T> add(Field<T> field) {
+            if (!keys.add(field.key))
+                throw new IllegalArgumentException("Duplicate key \"" + field.key + "\"!");
+            fields.add(field);
+            return this;
+        }
+
+        /**
+         * Adds a field to the resulting codec.
+         *
+         * @param key
+         *         key to store the field at
+         * @param codec
+         *         codec to read and write the field's value with
+         * @param getter
+         *         function that gets the field's value from an object
+         * @param setter
+         *         function that sets the field's value in an object
+         * @param <V>
+         *         type of field value
+         * @return this builder
+         */
+        public <V> Builder<T> field(String key, NbtFieldCodec<V> codec, Function<T, V> getter,
+                BiConsumer<T, V> setter) {
+            Objects.requireNonNull(key, "key == null!");
+            Objects.requireNonNull(codec, "codec == null!");
+            Objects.requireNonNull(getter, "getter == null!");
+            Objects.requireNonNull(setter, "setter == null!");
+            return add(new ObjectField<>(key, codec, getter, setter));
+        }
+
+        /**
+         * Adds an {@code int} field to the resulting codec.
+         *
+         * @param key
+         *         key to store the field at
+         * @param getter
+         *         function that gets the field's value from an object
+         * @param setter
+         *         function that sets the field's value in an object
+         * @return this builder
+         */
+        public Builder<T> intField(String key, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            Objects.requireNonNull(key, "key == null!");
+            Objects.requireNonNull(getter, "getter == null!");
+            Objects.requireNonNull(setter, "setter == null!");
+            return add(new IntField<>(key, getter, setter));
+        }
+
+        /**
+         * Adds a {@code long} field to the resulting codec.
+         *
+         * @param key
+         *         key to store the field at
+         * @param getter
+         *         function that gets the field's value from an object
+         * @param setter
+         *         function that sets the field's value in an object
+         * @return this builder
+         */
+        public Builder<T> longField(String key, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+            Objects.requireNonNull(key, "key == null!");
+            Objects.requireNonNull(getter, "getter == null!");
+            Objects.requireNonNull(setter, "setter == null!");
+            return add(new LongField<>(key, getter, setter));
+        }
+
+        /**
+         * Adds a {@code boolean} field to the resulting codec.
+         *
+         * @param key
+         *         key to store the field at
+         * @param getter
+         *         function that gets the field's value from an object
+         * @param setter
+         *         function that sets the field's value in an object
+         * @return this builder
+         */
+        public Builder<T> booleanField(String key, Predicate<T> getter, BiConsumer<T, Boolean> setter) {
+            Objects.requireNonNull(key, "key == null!");
+            Objects.requireNonNull(getter, "getter == null!");
+            Objects.requireNonNull(setter, "setter == null!");
+            return add(new BooleanField<>(key, getter, setter));
+        }
+
+        /**
+         * Builds a new {@code NbtCodec}.
+         *
+         * @return the newly built codec
+         */
+        @SuppressWarnings("unchecked")
+        public NbtCodec<T> build() {
+            return new NbtCodec<>(fields.toArray(new Field[0]));
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package adudecalledleo.lionutils.serialize;
+
+import adudecalledleo.lionutils.internal.serialize.EnumCache;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads specific values from a serialized (uncompressed) NBT compound tag without deserializing it.<p>
+ * The cursor starts at the root compound tag and can {@linkplain #enter(String) enter} its children by key, and the
+ * {@linkplain #enterElement(int) elements} of list tags. Entering a child skips over its siblings' data without
+ * decoding it, and getting a numeric, {@link BlockPos} or {@code enum} value doesn't allocate anything, so this is
+ * well suited for checking a single value in many large tags.<p>
+ * For example, this counts the diamonds in a shulker box item's serialized tag, without building any tags:<pre>
+ * int diamonds = 0;
+ * NbtCursor cursor = NbtCursor.of(buf);
+ * if (cursor != null &amp;&amp; cursor.enter("BlockEntityTag", "Items")) {
+ *     for (NbtCursor item : cursor.elements()) {
+ *         if (item.enter("id") &amp;&amp; item.stringEquals("minecraft:diamond")
+ *                 &amp;&amp; item.reset().enter("Count"))
+ *             diamonds += item.getInt();
+ *     }
+ * }
+ * </pre>
+ * Values are interpreted using the same conventions as {@link NbtUtil} - for example,
+ * {@link #getBlockPos()} reads a {@code long} tag like {@link NbtUtil#getBlockPos(net.minecraft.nbt.CompoundTag,
+ * String) NbtUtil.getBlockPos}.<p>
+ * The underlying buffer must not be modified while a cursor is in use. Malformed data results in an
+ * {@link IndexOutOfBoundsException} or {@link IllegalArgumentException}.
+ *
+ * @since 7.1.0
+ */
+public final class NbtCursor {
+    private static final int TYPE_END = 0, TYPE_BYTE = 1, TYPE_SHORT = 2, TYPE_INT = 3, TYPE_LONG = 4,
+            TYPE_FLOAT = 5, TYPE_DOUBLE = 6, TYPE_BYTE_ARRAY = 7, TYPE_STRING = 8, TYPE_LIST = 9, TYPE_COMPOUND = 10,
+            TYPE_INT_ARRAY = 11, TYPE_LONG_ARRAY = 12;
+    private static final int MAX_DEPTH = 512;
+
+    private final ByteBuffer buffer;
+    private int rootType, rootPos;
+    private int type;
+    private int pos;
+
+    private NbtCursor(ByteBuffer buffer, int rootType, int rootPos) {
+        this.buffer = buffer;
+        this.rootType = rootType;
+        this.rootPos = rootPos;
+        reset();
+    }
+
+    /**
+     * Creates a cursor over a serialized compound tag, as written by
+     * {@link net.minecraft.nbt.NbtIo#write(net.minecraft.nbt.CompoundTag, java.io.DataOutput) NbtIo.write} or
+     * {@link net.minecraft.network.PacketByteBuf#writeCompoundTag(net.minecraft.nbt.CompoundTag)
+     * PacketByteBuf.writeCompoundTag}.
+     *
+     * @param buffer
+     *         buffer containing the tag, starting at its position (the buffer's position is not changed)
+     * @return the new cursor, or {@code null} if the buffer contains an empty tag (as written for {@code null} tags)
+     */
+    public static NbtCursor of(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer == null!");
+        ByteBuffer dup = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int start = dup.position();
+        int rootType = dup.get(start);
+        if (rootType == TYPE_END)
+            return null;
+        if (rootType != TYPE_COMPOUND)
+            throw new IllegalArgumentException("Root tag is not a compound tag (type " + rootType + ")");
+        return new NbtCursor(dup, TYPE_COMPOUND, start + 3 + readUShort(dup, start + 1));
+    }
+
+    /**
+     * Creates a cursor over a serialized compound tag.<p>
+     * If the buffer's readable bytes are backed by a single NIO buffer (as with regular heap and direct buffers), the
+     * cursor reads from it directly. Otherwise (for example, with a composite buffer made up of several
+     * components), the readable bytes are copied into a new buffer first.
+     *
+     * @param buf
+     *         buffer containing the tag, starting at its reader index (the buffer's indices are not changed)
+     * @return the new cursor, or {@code null} if the buffer contains an empty tag
+     *
+     * @see #of(ByteBuffer)
+     */
+    public static NbtCursor of(ByteBuf buf) {
+        Objects.requireNonNull(buf, "buf == null!");
+        if (buf.nioBufferCount() == 1)
+            return of(buf.nioBuffer());
+        // nioBuffer() would merge the components into a copy anyway, so be explicit about it
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.getBytes(buf.readerIndex(), bytes);
+        return of(ByteBuffer.wrap(bytes));
+    }
+
+    private static int readUShort(ByteBuffer buffer, int at) {
+        return buffer.getShort(at) & 0xFFFF;
+    }
+
+    /**
+     * Moves this cursor back to the root tag.
+     *
+     * @return this cursor
+     */
+    public NbtCursor reset() {
+        type = rootType;
+        pos = rootPos;
+        return this;
+    }
+
+    /**
+     * Gets the type of the tag this cursor is at, as in {@link net.minecraft.nbt.Tag#getType()}.
+     *
+     * @return the current tag type
+     */
+    public int getType() {
+        return type;
+    }
+
+    private boolean isNumber() {
+        return type >= TYPE_BYTE && type <= TYPE_DOUBLE;
+    }
+
+    private boolean nameEquals(int at, int length, String name) {
+        // compares against modified UTF-8, as written by DataOutput.writeUTF
+        int end = at + length;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                if (at >= end || buffer.get(at++) != (byte) c)
+                    return false;
+            } else if (c <= 0x07FF) {
+                if (at + 1 >= end || buffer.get(at++) != (byte) (0xC0 | (c >> 6))
+                        || buffer.get(at++) != (byte) (0x80 | (c & 0x3F)))
+                    return false;
+            } else {
+                if (at + 2 >= end || buffer.get(at++) != (byte) (0xE0 | (c >> 12))
+                        || buffer.get(at++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+                        || buffer.get(at++) != (byte) (0x80 | (c & 0x3F)))
+                    return false;
+            }
+        }
+        return at == end;
+    }
+
+    private int skip(int type, int at, int depth) {
+        if (depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Tag is nested too deeply");
+        switch (type) {
+        case TYPE_BYTE:
+            return at + 1;
+        case TYPE_SHORT:
+            return at + 2;
+        case TYPE_INT:
+        case TYPE_FLOAT:
+            return at + 4;
+        case TYPE_LONG:
+        case TYPE_DOUBLE:
+            return at + 8;
+        case TYPE_BYTE_ARRAY:
+            return at + 4 + buffer.getInt(at);
+        case TYPE_STRING:
+            return at + 2 + readUShort(buffer, at);
+        case TYPE_INT_ARRAY:
+            return at + 4 + buffer.getInt(at) * 4;
+        case TYPE_LONG_ARRAY:
+            return at + 4 + buffer.getInt(at) * 8;
+        case TYPE_LIST: {
+            int elemType = buffer.get(at);
+            int count = buffer.getInt(at + 1);
+            at += 5;
+            for (int i = 0; i < count; i++)
+                at = skip(elemType, at, depth + 1);
+            return at;
+        }
+        case TYPE_COMPOUND:
+            while (true) {
+                int childType = buffer.get(at);
+                if (childType == TYPE_END)
+                    return at + 1;
+                at = skip(childType, at + 3 + readUShort(buffer, at + 1), depth + 1);
+            }
+        case TYPE_END:
+            return at;
+        default:
+            throw new IllegalArgumentException("Unknown tag type " + type);
+        }
+    }
+
+    private boolean enter0(String key) {
+        if (type != TYPE_COMPOUND)
+            return false;
+        int at = pos;
+        while (true) {
+            int childType = buffer.get(at);
+            if (childType == TYPE_END)
+                return false;
+            int nameLength = readUShort(buffer, at + 1);
+            int payload = at + 3 + nameLength;
+            if (nameEquals(at + 3, nameLength, key)) {
+                type = childType;
+                pos = payload;
+                return true;
+            }
+            at = skip(childType, payload, 0);
+        }
+    }
+
+    /**
+     * Moves this cursor to a child of the compound tag it is at.<p>
+     * If there is no such child (or the cursor isn't at a compound tag), the cursor is not moved.
+     *
+     * @param key
+     *         key of child
+     * @return {@code true} if the cursor was moved, {@code false} otherwise
+     */
+    public boolean enter(String key) {
+        Objects.requireNonNull(key, "key == null!");
+        return enter0(key);
+    }
+
+    /**
+     * Moves this cursor along a path of nested compound tags.<p>
+     * If any part of the path doesn't exist, the cursor is not moved.
+     *
+     * @param path
+     *         keys of children to enter, in order
+     * @return {@code true} if the cursor was moved, {@code false} otherwise
+     */
+    public boolean enter(String... path) {
+        int oldType = type, oldPos = pos;
+        for (String key : path) {
+            Objects.requireNonNull(key, "path contains null!");
+            if (!enter0(key)) {
+                type = oldType;
+                pos = oldPos;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves this cursor to an element of the list tag it is at.<p>
+     * If there is no such element (or the cursor isn't at a list tag), the cursor is not moved.<br>
+     * Finding an element skips over every element before it, so use {@link #elements()} to visit every element.
+     *
+     * @param index
+     *         element index
+     * @return {@code true} if the cursor was moved, {@code false} otherwise
+     */
+    public boolean enterElement(int index) {
+        if (type != TYPE_LIST)
+            return false;
+        int elemType = buffer.get(pos);
+        int count = buffer.getInt(pos + 1);
+        if (index < 0 || index >= count)
+            return false;
+        int at = pos + 5;
+        for (int i = 0; i < index; i++)
+            at = skip(elemType, at, 0);
+        type = elemType;
+        pos = at;
+        return true;
+    }
+
+    /**
+     * Gets the elements of the list tag this cursor is at, without moving this cursor.<p>
+     * The returned iterable's iterators return a cursor for each element in turn. For efficiency, the
+     * <em>same</em> cursor instance is returned for every element of an iteration, so it's only valid until the next
+     * call to {@link Iterator#next()}. Its {@linkplain #reset() root} is the current element, so it can be entered
+     * and reset freely while visiting that element.
+     *
+     * @return the elements of the current list tag, or no elements if the cursor isn't at a list tag
+     */
+    public Iterable<NbtCursor> elements() {
+        final int listType = type, listPos = pos;
+        return () -> new Iterator<NbtCursor>() {
+            private final int elemType = listType == TYPE_LIST ? buffer.get(listPos) : TYPE_END;
+            private final int count = listType == TYPE_LIST ? buffer.getInt(listPos + 1) : 0;
+            private NbtCursor element;
+            private int index, at = listPos + 5;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public NbtCursor next() {
+                if (index >= count)
+                    throw new NoSuchElementException();
+                if (element == null)
+                    element = new NbtCursor(buffer, elemType, at);
+                else {
+                    element.rootPos = at;
+                    element.reset();
+                }
+                at = skip(elemType, at, 0);
+                index++;
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Checks if the compound tag this cursor is at contains a child, without moving this cursor.
+     *
+     * @param key
+     *         key of child
+     * @param type
+     *         expected type of child, or 99 for any numeric type (as in
+     *         {@link net.minecraft.nbt.CompoundTag#contains(String, int)})
+     * @return {@code true} if the child is present and of the right type, {@code false} otherwise
+     */
+    public boolean contains(String key, int type) {
+        int oldType = this.type, oldPos = pos;
+        boolean found = enter(key) && (this.type == type || (type == 99 && isNumber()));
+        this.type = oldType;
+        pos = oldPos;
+        return found;
+    }
+
+    /**
+     * Reads the current tag as a {@code long}.<p>
+     * Like {@link net.minecraft.nbt.CompoundTag#getLong(String) CompoundTag.getLong}, floating point values are
+     * truncated.
+     *
+     * @return the value, or 0 if the current tag isn't numeric
+     */
+    public long getLong() {
+        switch (type) {
+        case TYPE_BYTE:
+            return buffer.get(pos);
+        case TYPE_SHORT:
+            return buffer.getShort(pos);
+        case TYPE_INT:
+            return buffer.getInt(pos);
+        case TYPE_LONG:
+            return buffer.getLong(pos);
+        case TYPE_FLOAT:
+            return (long) buffer.getFloat(pos);
+        case TYPE_DOUBLE:
+            return (long) buffer.getDouble(pos);
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the current tag as an {@code int}.<p>
+     * Like {@link net.minecraft.nbt.CompoundTag#getInt(String) CompoundTag.getInt}, floating point values are
+     * floored.
+     *
+     * @return the value, or 0 if the current tag isn't numeric
+     */
+    public int getInt() {
+        switch (type) {
+        case TYPE_FLOAT:
+            return MathHelper.floor(buffer.getFloat(pos));
+        case TYPE_DOUBLE:
+            return MathHelper.floor(buffer.getDouble(pos));
+        default:
+            return (int) getLong();
+        }
+    }
+
+    /**
+     * Reads the current tag as a {@code byte}.<p>
+     * Like {@link net.minecraft.nbt.CompoundTag#getByte(String) CompoundTag.getByte}, floating point values are
+     * floored.
+     *
+     * @return the value, or 0 if the current tag isn't numeric
+     */
+    public byte getByte() {
+        return (byte) getInt();
+    }
+
+    /**
+     * Reads the current tag as a {@code double}.
+     *
+     * @return the value, or 0 if the current tag isn't numeric
+     */
+    public double getDouble() {
+        switch (type) {
+        case TYPE_FLOAT:
+            return buffer.getFloat(pos);
+        case TYPE_DOUBLE:
+            return buffer.getDouble(pos);
+        default:
+            return getLong();
+        }
+    }
+
+    /**
+     * Reads the current tag as a {@code float}.
+     *
+     * @return the value, or 0 if the current tag isn't numeric
+     */
+    public float getFloat() {
+        switch (type) {
+        case TYPE_FLOAT:
+            return buffer.getFloat(pos);
+        case TYPE_DOUBLE:
+            return (float) buffer.getDouble(pos);
+        default:
+            // converting through double could round twice
+            return getLong();
+        }
+    }
+
+    /**
+     * Reads the current tag as a {@link String}.
+     *
+     * @return the value, or an empty string if the current tag isn't a string tag
+     */
+    public String getString() {
+        if (type != TYPE_STRING)
+            return "";
+        int length = readUShort(buffer, pos);
+        int at = pos + 2, end = at + length;
+        char[] chars = new char[length];
+        int count = 0;
+        while (at < end) {
+            int b = buffer.get(at++) & 0xFF;
+            if (b < 0x80)
+                chars[count++] = (char) b;
+            else if ((b & 0xE0) == 0xC0)
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get(at++) & 0x3F));
+            else
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get(at++) & 0x3F) << 6)
+                        | (buffer.get(at++) & 0x3F));
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Checks if the current tag is a string tag equal to the specified string, without allocating.
+     *
+     * @param str
+     *         string to compare to
+     * @return {@code true} if the current tag is a string tag equal to {@code str}, {@code false} otherwise
+     */
+    public boolean stringEquals(String str) {
+        return type == TYPE_STRING && nameEquals(pos + 2, readUShort(buffer, pos), str);
+    }
+
+    /**
+     * Reads the current tag as a {@link BlockPos}.
+     *
+     * @return the block position, or {@code null} if the current tag isn't a {@code long} tag
+     *
+     * @see NbtUtil#getBlockPos(net.minecraft.nbt.CompoundTag, String)
+     */
+    public BlockPos getBlockPos() {
+        if (type != TYPE_LONG)
+            return null;
+        return BlockPos.fromLong(buffer.getLong(pos));
+    }
+
+    /**
+     * Reads the current tag as an {@code enum} value, without allocating.
+     *
+     * @param enumType
+     *         type of {@code enum} value
+     * @param <T>
+     *         type of {@code enum} value
+     * @return the {@code enum} value, or {@code null} if the current tag isn't a string tag that names one
+     *
+     * @see NbtUtil#getEnum(Class, net.minecraft.nbt.CompoundTag, String)
+     */
+    public <T extends Enum<T>> T getEnum(Class<T> enumType) {
+        if (type != TYPE_STRING)
+            return null;
+        for (T value : EnumCache.get(enumType).values()) {
+            if (stringEquals(value.name()))
+                return value;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the length of the current array or list tag.
+     *
+     * @return the number of elements, or 0 if the current tag isn't an array or list tag
+     */
+    public int getLength() {
+        switch (type) {
+        case TYPE_BYTE_ARRAY:
+        case TYPE_INT_ARRAY:
+        case TYPE_LONG_ARRAY:
+            return buffer.getInt(pos);
+        case TYPE_LIST:
+            return buffer.getInt(pos + 1);
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * Gets an element of the current {@code long} array tag.
+     *
+     * @param index
+     *         element index
+     * @return the element, or 0 if the current tag isn't a {@code long} array tag
+     */
+    public long getLongArrayElement(int index) {
+        if (type != TYPE_LONG_ARRAY)
+            return 0;
+        int length = buffer.getInt(pos);
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + length);
+        return buffer.getLong(pos + 4 + index * 8);
+    }
+}
@@ -0,0 +1,133 @@
+package adudecalledleo.lionutils.serialize;
+
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Remembers the last tag each object was serialized to, so unchanged objects don't need to be serialized again.<p>
+ * Objects start out as dirty, and stop being dirty once they're written. Call {@link #markDirty(Object)} whenever an
+ * object changes (for example, from {@code BlockEntity.markDirty()}) so that the next write picks up the change.<p>
+ * Use separate trackers for separate purposes - for example, one for saving and one for syncing to clients, since
+ * these usually happen at different times.<p>
+ * Objects are held weakly (as keys of a {@link WeakHashMap}). This class is <em>not</em> thread-safe.
+ *
+ * @param <T>
+ *         type of object
+ * @since 7.1.0
+ */
+public final class NbtDeltaTracker<T> {
+    private static final class Entry {
+        private CompoundTag lastTag;
+        private boolean dirty = true;
+    }
+
+    private final Function<T, CompoundTag> writer;
+    private final Map<T, Entry> entries;
+
+    private NbtDeltaTracker(Function<T, CompoundTag> writer) {
+        this.writer = writer;
+        entries = new WeakHashMap<>();
+    }
+
+    /**
+     * Creates a new {@code NbtDeltaTracker}.
+     *
+     * @param writer
+     *         function that serializes an object into a new tag, such as
+     *         {@code be -> be.toTag(new CompoundTag())}
+     * @param <T>
+     *         type of object
+     * @return a new tracker instance
+     */
+    public static <T> NbtDeltaTracker<T> create(Function<T, CompoundTag> writer) {
+        Objects.requireNonNull(writer, "writer == null!");
+        return new NbtDeltaTracker<>(writer);
+    }
+
+    private Entry getEntry(T obj) {
+        Objects.requireNonNull(obj, "obj == null!");
+        return entries.computeIfAbsent(obj, k -> new Entry());
+    }
+
+    /**
+     * Marks an object as dirty, meaning it has changed since it was last written.
+     *
+     * @param obj
+     *         object that changed
+     */
+    public void markDirty(T obj) {
+        Entry entry = entries.get(obj);
+        if (entry != null)
+            entry.dirty = true;
+    }
+
+    /**
+     * Checks if an object is dirty, meaning it has changed since it was last written (or was never written).
+     *
+     * @param obj
+     *         object to check
+     * @return {@code true} if the object is dirty, {@code false} otherwise
+     */
+    public boolean isDirty(T obj) {
+        Entry entry = entries.get(obj);
+        return entry == null || entry.dirty;
+    }
+
+    /**
+     * Forgets an object's last written tag, making it dirty again.
+     *
+     * @param obj
+     *         object to forget
+     */
+    public void forget(T obj) {
+        entries.remove(obj);
+    }
+
+    /**
+     * Gets an object's full tag, only serializing it if it is dirty.<p>
+     * If the object is not dirty, the tag returned by the last write is returned again. That tag is shared, so it
+     * <em>must not</em> be modified - {@linkplain CompoundTag#copy() copy} it first if needed.
+     *
+     * @param obj
+     *         object to write
+     * @return the object's tag
+     */
+    public CompoundTag write(T obj) {
+        Entry entry = getEntry(obj);
+        if (entry.dirty || entry.lastTag == null) {
+            entry.lastTag = writer.apply(obj);
+            entry.dirty = false;
+        }
+        return entry.lastTag;
+    }
+
+    /**
+     * Gets the changes to an object's tag since the last write, in the format of
+     * {@link NbtUtil#diff(CompoundTag, CompoundTag)}.<p>
+     * If the object was never written before, the difference from an empty tag (that is, every key of its tag) is
+     * returned. If it is not dirty, it isn't serialized at all. The result can be applied to the previously written
+     * tag (or an empty tag, for the first write) using {@link NbtUtil#applyDiff(CompoundTag, CompoundTag)}.<p>
+     * The returned tag is new, but the values in it are shared with the tag this tracker remembers, so they
+     * <em>must not</em> be modified - {@linkplain CompoundTag#copy() copy} them first if needed.
+     *
+     * @param obj
+     *         object to write
+     * @return the changes, or {@code null} if nothing changed
+     *
+     * @see NbtUtil#diff(CompoundTag, CompoundTag)
+     */
+    public CompoundTag writeDelta(T obj) {
+        Entry entry = getEntry(obj);
+        if (!entry.dirty && entry.lastTag != null)
+            return null;
+        CompoundTag old = entry.lastTag;
+        CompoundTag now = writer.apply(obj);
+        entry.lastTag = now;
+        entry.dirty = false;
+        return NbtUtil.diff(old == null ? new CompoundTag() : old, now);
+    }
+}
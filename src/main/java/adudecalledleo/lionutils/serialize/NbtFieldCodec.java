@@ -0,0 +1,223 @@
+package adudecalledleo.lionutils.serialize;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Objects;
+
+/**
+ * Reads and writes a single value of a {@link CompoundTag}. Used to build {@link NbtCodec}s.
+ *
+ * @param <V>
+ *         type of value
+ * @since 7.1.0
+ */
+public interface NbtFieldCodec<V> {
+    /**
+     * Checks if a {@link CompoundTag} contains a value.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to check
+     * @return {@code true} if value is present, {@code false} otherwise
+     */
+    boolean contains(CompoundTag tag, String key);
+
+    /**
+     * Reads a value from a {@link CompoundTag}. Only called if {@link #contains(CompoundTag, String)} returned
+     * {@code true}.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to read from
+     * @return the value
+     */
+    V read(CompoundTag tag, String key);
+
+    /**
+     * Writes a value to a {@link CompoundTag}.
+     *
+     * @param tag
+     *         destination tag
+     * @param key
+     *         key to write to
+     * @param value
+     *         value to write (never {@code null})
+     */
+    void write(CompoundTag tag, String key, V value);
+
+    /**
+     * Checks if a {@link CompoundTag} already contains a specific value.<p>
+     * The default implementation {@linkplain #read(CompoundTag, String) reads} the stored value and compares it using
+     * {@link Objects#deepEquals(Object, Object)}. Implementations should override this if they can compare the stored
+     * value without reading it.
+     *
+     * @param tag
+     *         tag to check
+     * @param key
+     *         key to check
+     * @param value
+     *         value to compare to (never {@code null})
+     * @return {@code true} if the stored value is equal to {@code value}, {@code false} otherwise
+     */
+    default boolean isStored(CompoundTag tag, String key, V value) {
+        return contains(tag, key) && Objects.deepEquals(read(tag, key), value);
+    }
+
+    /**
+     * Field codec for {@link String}s.
+     */
+    NbtFieldCodec<String> STRING = new NbtFieldCodec<String>() {
+        @Override
+        public boolean contains(CompoundTag tag, String key) {
+            return tag.contains(key, /* NbtType.STRING */ 8);
+        }
+
+        @Override
+        public String read(CompoundTag tag, String key) {
+            return tag.getString(key);
+        }
+
+        @Override
+        public void write(CompoundTag tag, String key, String value) {
+            tag.putString(key, value);
+        }
+    };
+
+    /**
+     * Field codec for {@link BlockPos}es.
+     *
+     * @see NbtUtil#putBlockPos(CompoundTag, String, BlockPos)
+     */
+    NbtFieldCodec<BlockPos> BLOCK_POS = new NbtFieldCodec<BlockPos>() {
+        @Override
+        public boolean contains(CompoundTag tag, String key) {
+            return NbtUtil.containsBlockPos(tag, key);
+        }
+
+        @Override
+        public BlockPos read(CompoundTag tag, String key) {
+            return NbtUtil.getBlockPos(tag, key);
+        }
+
+        @Override
+        public void write(CompoundTag tag, String key, BlockPos value) {
+            NbtUtil.putBlockPos(tag, key, value);
+        }
+
+        @Override
+        public boolean isStored(CompoundTag tag, String key, BlockPos value) {
+            return contains(tag, key) && tag.getLong(key) == value.asLong();
+        }
+    };
+
+    /**
+     * Field codec for {@link BlockPos} arrays.
+     *
+     * @see NbtUtil#putBlockPosArray(CompoundTag, String, BlockPos...)
+     */
+    NbtFieldCodec<BlockPos[]> BLOCK_POS_ARRAY = new NbtFieldCodec<BlockPos[]>() {
+        @Override
+        public boolean contains(CompoundTag tag, String key) {
+            return NbtUtil.containsBlockPosArray(tag, key);
+        }
+
+        @Override
+        public BlockPos[] read(CompoundTag tag, String key) {
+            return NbtUtil.getBlockPosArray(tag, key);
+        }
+
+        @Override
+        public void write(CompoundTag tag, String key, BlockPos[] value) {
+            NbtUtil.putBlockPosArray(tag, key, value);
+        }
+
+        @Override
+        public boolean isStored(CompoundTag tag, String key, BlockPos[] value) {
+            if (!contains(tag, key))
+                return false;
+            long[] stored = tag.getLongArray(key);
+            if (stored.length != value.length)
+                return false;
+            for (int i = 0; i < stored.length; i++) {
+                if (stored[i] != value[i].asLong())
+                    return false;
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Creates a field codec for {@code enum} values, stored by name.
+     *
+     * @param enumType
+     *         type of {@code enum} value
+     * @param <T>
+     *         type of {@code enum} value
+     * @return the field codec
+     *
+     * @see NbtUtil#putEnum(CompoundTag, String, Enum)
+     */
+    static <T extends Enum<T>> NbtFieldCodec<T> ofEnum(Class<T> enumType) {
+        Objects.requireNonNull(enumType, "enumType == null!");
+        return new NbtFieldCodec<T>() {
+            @Override
+            public boolean contains(CompoundTag tag, String key) {
+                return NbtUtil.containsEnum(enumType, tag, key);
+            }
+
+            @Override
+            public T read(CompoundTag tag, String key) {
+                return NbtUtil.getEnum(enumType, tag, key);
+            }
+
+            @Override
+            public void write(CompoundTag tag, String key, T value) {
+                NbtUtil.putEnum(tag, key, value);
+            }
+
+            @Override
+            public boolean isStored(CompoundTag tag, String key, T value) {
+                return tag.contains(key, /* NbtType.STRING */ 8) && tag.getString(key).equals(value.name());
+            }
+        };
+    }
+
+    /**
+     * Creates a field codec for {@code enum} values, stored by ordinal.
+     *
+     * @param enumType
+     *         type of {@code enum} value
+     * @param <T>
+     *         type of {@code enum} value
+     * @return the field codec
+     *
+     * @see NbtUtil#putEnumOrdinal(CompoundTag, String, Enum)
+     */
+    static <T extends Enum<T>> NbtFieldCodec<T> ofEnumOrdinal(Class<T> enumType) {
+        Objects.requireNonNull(enumType, "enumType == null!");
+        return new NbtFieldCodec<T>() {
+            @Override
+            public boolean contains(CompoundTag tag, String key) {
+                return NbtUtil.containsEnumOrdinal(enumType, tag, key);
+            }
+
+            @Override
+            public T read(CompoundTag tag, String key) {
+                return NbtUtil.getEnumOrdinal(enumType, tag, key);
+            }
+
+            @Override
+            public void write(CompoundTag tag, String key, T value) {
+                NbtUtil.putEnumOrdinal(tag, key, value);
+            }
+
+            @Override
+            public boolean isStored(CompoundTag tag, String key, T value) {
+                return NbtUtil.getEnumOrdinal(enumType, tag, key) == value;
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package adudecalledleo.lionutils.serialize;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates structurally identical NBT tags, so that many objects holding equal tags can share a single instance.
+ * <p>
+ * Tags are compared using {@link Tag#equals(Object)} and {@link Tag#hashCode()}, which compare tag contents. Canonical
+ * tags are only held weakly, so they are dropped once nothing else refers to them. This class is thread-safe.<p>
+ * <strong>NOTE:</strong> Interned tags are shared, so they <em>must not</em> be modified afterwards - replace them
+ * (or {@linkplain Tag#copy() copy} them first) instead.
+ *
+ * @since 7.1.0
+ */
+public final class NbtInterner {
+    private static final class WeakKey extends WeakReference<Tag> {
+        private final int hash;
+
+        private WeakKey(Tag referent, ReferenceQueue<Tag> queue) {
+            super(referent, queue);
+            hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof WeakKey))
+                return false;
+            WeakKey other = (WeakKey) obj;
+            if (hash != other.hash)
+                return false;
+            Tag referent = get();
+            return referent != null && referent.equals(other.get());
+        }
+    }
+
+    private final ConcurrentHashMap<WeakKey, WeakKey> canonicalTags;
+    private final ReferenceQueue<Tag> queue;
+
+    private NbtInterner() {
+        canonicalTags = new ConcurrentHashMap<>();
+        queue = new ReferenceQueue<>();
+    }
+
+    /**
+     * Creates a new {@code NbtInterner}.
+     *
+     * @return a new interner instance
+     */
+    public static NbtInterner create() {
+        return new NbtInterner();
+    }
+
+    private void expungeStaleKeys() {
+        Reference<? extends Tag> ref;
+        while ((ref = queue.poll()) != null)
+            canonicalTags.remove(ref);
+    }
+
+    /**
+     * Gets the canonical instance of a tag.<p>
+     * If an equal tag was interned before (and is still referenced), that tag is returned. Otherwise, the specified tag
+     * becomes the canonical instance and is returned.
+     *
+     * @param tag
+     *         tag to intern
+     * @param <T>
+     *         type of tag
+     * @return the canonical instance of the tag
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Tag> T intern(T tag) {
+        Objects.requireNonNull(tag, "tag == null!");
+        expungeStaleKeys();
+        WeakKey key = new WeakKey(tag, queue);
+        while (true) {
+            WeakKey existing = canonicalTags.putIfAbsent(key, key);
+            if (existing == null)
+                return tag;
+            Tag canonical = existing.get();
+            // equal tags always have the same type, so this cast is safe
+            if (canonical != null)
+                return (T) canonical;
+            // referent was collected between lookup and get, drop it and try again
+            canonicalTags.remove(existing, existing);
+        }
+    }
+
+    /**
+     * Replaces a child of a {@link CompoundTag} with its canonical instance.
+     *
+     * @param parent
+     *         tag containing the child
+     * @param key
+     *         key of the child
+     * @return the parent tag
+     *
+     * @see #intern(Tag)
+     */
+    public CompoundTag internChild(CompoundTag parent, String key) {
+        Tag child = parent.get(key);
+        if (child != null)
+            parent.put(key, intern(child));
+        return parent;
+    }
+
+    /**
+     * Gets the amount of canonical tags currently held by this interner.
+     *
+     * @return the amount of canonical tags
+     */
+    public int size() {
+        expungeStaleKeys();
+        return canonicalTags.size();
+    }
+}
@@ -1,11 +1,23 @@
 package adudecalledleo.lionutils.serialize;
 
 import adudecalledleo.lionutils.InitializerUtil;
+import adudecalledleo.lionutils.internal.serialize.BlockPosSetCodec;
+import adudecalledleo.lionutils.internal.serialize.EnumCache;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Helper class for dealing with reading from and writing to NBT tags.
@@ -88,7 +100,60 @@ public final class NbtUtil {
     public static BlockPos[] getBlockPosArray(CompoundTag tag, String key) {
         if (!containsBlockPosArray(tag, key))
             return new BlockPos[0];
-        return Arrays.stream(tag.getLongArray(key)).mapToObj(BlockPos::fromLong).toArray(BlockPos[]::new);
+        long[] longs = tag.getLongArray(key);
+        BlockPos[] posArr = new BlockPos[longs.length];
+        for (int i = 0; i < longs.length; i++)
+            posArr[i] = BlockPos.fromLong(longs[i]);
+        return posArr;
+    }
+
+    /**
+     * Visits every {@link BlockPos} in a {@link BlockPos} array stored in a {@link CompoundTag}, in their packed
+     * {@code long} form.<p>
+     * Unlike {@link #getBlockPosArray(CompoundTag, String)}, this does not create any objects.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to read from
+     * @param visitor
+     *         visitor to call with each packed block position (see {@link BlockPos#fromLong(long)})
+     * @return the number of block positions visited, or 0 if the key isn't associated with a block position array
+     *
+     * @since 7.1.0
+     */
+    public static int visitBlockPosLongs(CompoundTag tag, String key, LongConsumer visitor) {
+        if (!containsBlockPosArray(tag, key))
+            return 0;
+        long[] longs = tag.getLongArray(key);
+        for (long l : longs)
+            visitor.accept(l);
+        return longs.length;
+    }
+
+    /**
+     * Visits every {@link BlockPos} in a {@link BlockPos} array stored in a {@link CompoundTag}.<p>
+     * The same {@link BlockPos.Mutable} instance is passed to every call, so visitors must not hold on to it -
+     * use {@link BlockPos#toImmutable()} if a position needs to be kept.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to read from
+     * @param visitor
+     *         visitor to call with each block position
+     * @return the number of block positions visited, or 0 if the key isn't associated with a block position array
+     *
+     * @since 7.1.0
+     */
+    public static int visitBlockPosArray(CompoundTag tag, String key, Consumer<BlockPos.Mutable> visitor) {
+        if (!containsBlockPosArray(tag, key))
+            return 0;
+        long[] longs = tag.getLongArray(key);
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        for (long l : longs)
+            visitor.accept(mutable.set(l));
+        return longs.length;
     }
 
     /**
@@ -102,7 +167,10 @@ public final class NbtUtil {
      *         block position array to write
      */
     public static void putBlockPosArray(CompoundTag tag, String key, BlockPos... posArr) {
-        tag.putLongArray(key, Arrays.stream(posArr).mapToLong(BlockPos::asLong).toArray());
+        long[] longs = new long[posArr.length];
+        for (int i = 0; i < posArr.length; i++)
+            longs[i] = posArr[i].asLong();
+        tag.putLongArray(key, longs);
     }
 
     /**
@@ -117,15 +185,165 @@ public final class NbtUtil {
      * @see #putBlockPosArray(CompoundTag, String, BlockPos...)
      */
     public static void putBlockPosArray(CompoundTag tag, String key, List<BlockPos> posList) {
-        putBlockPosArray(tag, key, posList.toArray(new BlockPos[0]));
+        long[] longs = new long[posList.size()];
+        int i = 0;
+        for (BlockPos pos : posList)
+            longs[i++] = pos.asLong();
+        tag.putLongArray(key, longs);
+    }
+
+    /**
+     * Writes a {@link BlockPos} array to a {@link CompoundTag}, taking the block positions in their packed
+     * {@code long} form.
+     *
+     * @param tag
+     *         destination tag
+     * @param key
+     *         key to write to
+     * @param posLongs
+     *         packed block positions to write (see {@link BlockPos#asLong()})
+     * @see #putBlockPosArray(CompoundTag, String, BlockPos...)
+     * @since 7.1.0
+     */
+    public static void putBlockPosArray(CompoundTag tag, String key, LongCollection posLongs) {
+        tag.putLongArray(key, posLongs.toLongArray());
+    }
+
+    /**
+     * Writes a {@link BlockPos} array to a {@link CompoundTag}, taking the block positions in their packed
+     * {@code long} form.
+     *
+     * @param tag
+     *         destination tag
+     * @param key
+     *         key to write to
+     * @param posLongs
+     *         iterator over packed block positions to write (see {@link BlockPos#asLong()})
+     * @see #putBlockPosArray(CompoundTag, String, BlockPos...)
+     * @since 7.1.0
+     */
+    public static void putBlockPosArray(CompoundTag tag, String key, LongIterator posLongs) {
+        LongArrayList list = new LongArrayList();
+        while (posLongs.hasNext())
+            list.add(posLongs.nextLong());
+        tag.putLongArray(key, list.toLongArray());
+    }
+
+    /**
+     * Checks if a {@link CompoundTag} contains a {@link BlockPos} set.<p>
+     * Both the compact format written by {@link #putBlockPosSet(CompoundTag, String, LongCollection, boolean)} and
+     * plain {@linkplain #putBlockPosArray(CompoundTag, String, BlockPos...) block position arrays} are accepted.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to check
+     * @return {@code true} if block position set is present, {@code false} otherwise
+     *
+     * @since 7.1.0
+     */
+    public static boolean containsBlockPosSet(CompoundTag tag, String key) {
+        if (containsBlockPosArray(tag, key))
+            return true;
+        if (!tag.contains(key, /* NbtType.BYTE_ARRAY */ 7))
+            return false;
+        byte[] data = tag.getByteArray(key);
+        return data.length > 0 && BlockPosSetCodec.isKnownFormat(data[0]);
+    }
+
+    /**
+     * Visits every {@link BlockPos} in a {@link BlockPos} set stored in a {@link CompoundTag}, in their packed
+     * {@code long} form.<p>
+     * Both the compact format written by {@link #putBlockPosSet(CompoundTag, String, LongCollection, boolean)} and
+     * plain {@linkplain #putBlockPosArray(CompoundTag, String, BlockPos...) block position arrays} are accepted.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to read from
+     * @param visitor
+     *         visitor to call with each packed block position (see {@link BlockPos#fromLong(long)})
+     * @return the number of block positions visited, or 0 if the key isn't associated with a block position set
+     * @throws IllegalArgumentException
+     *         if the compact set data is truncated or malformed
+     *
+     * @since 7.1.0
+     */
+    public static int visitBlockPosSet(CompoundTag tag, String key, LongConsumer visitor) {
+        if (containsBlockPosArray(tag, key))
+            return visitBlockPosLongs(tag, key, visitor);
+        if (!containsBlockPosSet(tag, key))
+            return 0;
+        return BlockPosSetCodec.decode(tag.getByteArray(key), visitor);
+    }
+
+    /**
+     * Reads a {@link BlockPos} set from a {@link CompoundTag}, in packed {@code long} form.
+     *
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to read from
+     * @return the packed block positions (see {@link BlockPos#fromLong(long)}), or an empty list if the key isn't
+     *         associated with a block position set
+     *
+     * @see #visitBlockPosSet(CompoundTag, String, LongConsumer)
+     * @since 7.1.0
+     */
+    public static LongList getBlockPosSet(CompoundTag tag, String key) {
+        LongArrayList list = new LongArrayList();
+        visitBlockPosSet(tag, key, list::add);
+        return list;
+    }
+
+    /**
+     * Writes a {@link BlockPos} set to a {@link CompoundTag} in a compact format.<p>
+     * The positions are sorted, deduplicated and delta-encoded as variable-length integers into a byte array. If
+     * {@code runLength} is set, runs of positions that are next to each other along the X axis are also collapsed,
+     * which makes large, mostly contiguous regions very small.<p>
+     * Use {@link #visitBlockPosSet(CompoundTag, String, LongConsumer)} or {@link #getBlockPosSet(CompoundTag, String)}
+     * to read the set back. Note that the order of the positions is not preserved.
+     *
+     * @param tag
+     *         destination tag
+     * @param key
+     *         key to write to
+     * @param posLongs
+     *         packed block positions to write (see {@link BlockPos#asLong()})
+     * @param runLength
+     *         {@code true} to run-length encode positions along the X axis, {@code false} otherwise
+     * @since 7.1.0
+     */
+    public static void putBlockPosSet(CompoundTag tag, String key, LongCollection posLongs, boolean runLength) {
+        long[] longs = posLongs.toLongArray();
+        tag.putByteArray(key, BlockPosSetCodec.encode(longs, longs.length, runLength));
+    }
+
+    /**
+     * Writes a {@link BlockPos} set to a {@link CompoundTag} in a compact format.
+     *
+     * @param tag
+     *         destination tag
+     * @param key
+     *         key to write to
+     * @param posCollection
+     *         block positions to write
+     * @param runLength
+     *         {@code true} to run-length encode positions along the X axis, {@code false} otherwise
+     * @see #putBlockPosSet(CompoundTag, String, LongCollection, boolean)
+     * @since 7.1.0
+     */
+    public static void putBlockPosSet(CompoundTag tag, String key, Collection<BlockPos> posCollection,
+            boolean runLength) {
+        long[] longs = new long[posCollection.size()];
+        int i = 0;
+        for (BlockPos pos : posCollection)
+            longs[i++] = pos.asLong();
+        tag.putByteArray(key, BlockPosSetCodec.encode(longs, i, runLength));
     }
 
     private static <T extends Enum<T>> T getEnum0(Class<T> enumType, CompoundTag tag, String key) {
-        try {
-            return T.valueOf(enumType, tag.getString(key));
-        } catch (IllegalArgumentException ignored) {
-            return null;
-        }
+        return EnumCache.get(enumType).byName(tag.getString(key));
     }
 
     /**
@@ -186,4 +404,156 @@ public final class NbtUtil {
     public static <T extends Enum<T>> void putEnum(CompoundTag tag, String key, T value) {
         tag.putString(key, value.name());
     }
+
+    private static <T extends Enum<T>> T getEnumOrdinal0(Class<T> enumType, CompoundTag tag, String key) {
+        int ordinal;
+        switch (tag.getType(key)) {
+        case /* NbtType.BYTE */ 1:
+            ordinal = tag.getByte(key) & 0xFF;
+            break;
+        case /* NbtType.SHORT */ 2:
+        case /* NbtType.INT */ 3:
+            ordinal = tag.getInt(key);
+            break;
+        default:
+            // not a number, or not an integral one - floating point values and longs would be truncated into some
+            //  unrelated ordinal
+            return null;
+        }
+        return EnumCache.get(enumType).byOrdinal(ordinal);
+    }
+
+    /**
+     * Checks if a {@link CompoundTag} contains an {@code enum} value stored by its ordinal.
+     *
+     * @param enumType
+     *         type of {@code enum} value
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to check
+     * @param <T>
+     *         type of {@code enum} value
+     * @return {@code true} if {@code enum} value is present (as a {@code byte}, {@code short} or {@code int} tag that
+     *         holds a valid ordinal), {@code false} otherwise
+     *
+     * @since 7.1.0
+     */
+    public static <T extends Enum<T>> boolean containsEnumOrdinal(Class<T> enumType, CompoundTag tag, String key) {
+        return getEnumOrdinal0(enumType, tag, key) != null;
+    }
+
+    /**
+     * Reads an {@code enum} value stored by its ordinal from a {@link CompoundTag}.
+     *
+     * @param enumType
+     *         type of {@code enum} value
+     * @param tag
+     *         source tag
+     * @param key
+     *         key to read from
+     * @param <T>
+     *         type of {@code enum} value
+     * @return the {@code enum} value, or {@code null} if the key isn't associated with one (that is, with a
+     *         {@code byte}, {@code short} or {@code int} tag that holds a valid ordinal)
+     *
+     * @since 7.1.0
+     */
+    public static <T extends Enum<T>> T getEnumOrdinal(Class<T> enumType, CompoundTag tag, String key) {
+        return getEnumOrdinal0(enumType, tag, key);
+    }
+
+    /**
+     * Writes an {@code enum} value to a {@link CompoundTag} by its ordinal.<p>
+     * This is more compact than {@link #putEnum(CompoundTag, String, Enum)} (the value is stored as a byte if the
+     * {@code enum} has at most 256 constants), but the stored value will refer to a different constant if constants
+     * are added, removed or reordered.
+     *
+     * @param tag
+     *         destination tag
+     * @param key
+     *         key to write to
+     * @param value
+     *         {@code enum} value to write
+     * @param <T>
+     *         type of {@code enum} value
+     * @since 7.1.0
+     */
+    public static <T extends Enum<T>> void putEnumOrdinal(CompoundTag tag, String key, T value) {
+        if (EnumCache.get(value.getDeclaringClass()).size() <= 256)
+            tag.putByte(key, (byte) value.ordinal());
+        else
+            tag.putInt(key, value.ordinal());
+    }
+
+    private static final String DIFF_SET_KEY = "set", DIFF_REMOVED_KEY = "removed";
+
+    /**
+     * Computes the difference between two {@link CompoundTag}s.<p>
+     * The resulting tag has up to 2 children:
+     * <ul>
+     *     <li>{@code set}, a compound tag containing every key of {@code now} whose value is not equal to the value of
+     *     the same key in {@code old} (values are shared, not copied);</li>
+     *     <li>{@code removed}, a string list of the keys that are present in {@code old} but not in {@code now}.</li>
+     * </ul>
+     * Either child is left out if it would be empty. Nested compound tags are compared as a whole.
+     *
+     * @param old
+     *         original tag
+     * @param now
+     *         updated tag
+     * @return the difference, or {@code null} if both tags are equal
+     *
+     * @see #applyDiff(CompoundTag, CompoundTag)
+     * @since 7.1.0
+     */
+    public static CompoundTag diff(CompoundTag old, CompoundTag now) {
+        CompoundTag set = null;
+        for (String key : now.getKeys()) {
+            Tag value = now.get(key);
+            if (!Objects.equals(old.get(key), value)) {
+                if (set == null)
+                    set = new CompoundTag();
+                set.put(key, value);
+            }
+        }
+        ListTag removed = null;
+        for (String key : old.getKeys()) {
+            if (!now.contains(key)) {
+                if (removed == null)
+                    removed = new ListTag();
+                removed.add(StringTag.of(key));
+            }
+        }
+        if (set == null && removed == null)
+            return null;
+        CompoundTag diff = new CompoundTag();
+        if (set != null)
+            diff.put(DIFF_SET_KEY, set);
+        if (removed != null)
+            diff.put(DIFF_REMOVED_KEY, removed);
+        return diff;
+    }
+
+    /**
+     * Applies a difference computed by {@link #diff(CompoundTag, CompoundTag)} to a {@link CompoundTag}.<p>
+     * Values are copied, so the difference can still be used afterwards.
+     *
+     * @param target
+     *         tag to update
+     * @param diff
+     *         difference to apply
+     * @return the updated tag
+     *
+     * @since 7.1.0
+     */
+    public static CompoundTag applyDiff(CompoundTag target, CompoundTag diff) {
+        ListTag removed = diff.getList(DIFF_REMOVED_KEY, /* NbtType.STRING */ 8);
+        for (int i = 0; i < removed.size(); i++)
+            target.remove(removed.getString(i));
+        CompoundTag set = diff.getCompound(DIFF_SET_KEY);
+        for (String key : set.getKeys())
+            target.put(key, set.get(key).copy());
+        return target;
+    }
 }
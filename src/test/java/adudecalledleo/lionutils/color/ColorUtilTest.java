@@ -0,0 +1,66 @@
+package adudecalledleo.lionutils.color;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the packed-channel {@link ColorUtil} operations against their per-component counterparts.
+ */
+class ColorUtilTest {
+    private static final int ITERATIONS = 1_000_000;
+
+    private static void assertWithin(int expected, int actual, int tolerance, String what) {
+        for (int shift = 0; shift < 24; shift += 8) {
+            int e = (expected >> shift) & 0xFF, a = (actual >> shift) & 0xFF;
+            assertTrue(Math.abs(e - a) <= tolerance, () -> String.format("%s: expected %08X, got %08X",
+                    what, expected, actual));
+        }
+        assertEquals(expected >>> 24, actual >>> 24, () -> what + ": alpha differs");
+    }
+
+    @Test
+    void mixFastMatchesMix() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int c1 = rand.nextInt(), c2 = rand.nextInt();
+            float bias = rand.nextFloat();
+            assertWithin(ColorUtil.mix(c1, c2, bias), ColorUtil.mixFast(c1, c2, bias), 1,
+                    String.format("mix(%08X, %08X, %s)", c1, c2, bias));
+        }
+    }
+
+    @Test
+    void mixFastIsExactAtEnds() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int c1 = rand.nextInt(), c2 = rand.nextInt();
+            assertEquals(c1 | 0xFF000000, ColorUtil.mixFast(c1, c2, 0));
+            assertEquals(c2 | 0xFF000000, ColorUtil.mixFast(c1, c2, 1));
+        }
+    }
+
+    @Test
+    void multiplyFastMatchesMultiply() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int c = rand.nextInt();
+            float multiplier = rand.nextFloat();
+            assertWithin(ColorUtil.multiply(c, multiplier), ColorUtil.multiplyFast(c, multiplier), 1,
+                    String.format("multiply(%08X, %s)", c, multiplier));
+        }
+    }
+
+    @Test
+    void multiplyFastIsExactAtEnds() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int c = rand.nextInt();
+            assertEquals(c & 0xFF000000, ColorUtil.multiplyFast(c, 0));
+            assertEquals(c, ColorUtil.multiplyFast(c, 1));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package adudecalledleo.lionutils.color;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the table-based {@link LinearColorUtil} conversions against the sRGB transfer functions computed with
+ * {@link Math#pow(double, double)}.
+ */
+class LinearColorUtilTest {
+    private static final int ITERATIONS = 1_000_000;
+
+    private static double srgbToLinear(double v) {
+        if (v <= 0.04045)
+            return v / 12.92;
+        return Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static double linearToSrgb(double v) {
+        if (v <= 0.0031308)
+            return v * 12.92;
+        return 1.055 * Math.pow(v, 1 / 2.4) - 0.055;
+    }
+
+    private static int referenceMix(int v1, int v2, float bias) {
+        double l = srgbToLinear(v1 / 255.0) * (1 - bias) + srgbToLinear(v2 / 255.0) * bias;
+        return (int) Math.round(linearToSrgb(l) * 255);
+    }
+
+    private static int referenceMultiply(int v, float multiplier) {
+        return (int) Math.round(linearToSrgb(srgbToLinear(v / 255.0) * multiplier) * 255);
+    }
+
+    @Test
+    void toLinearMatchesTransferFunction() {
+        for (int i = 0; i < 256; i++) {
+            int expected = (int) Math.round(srgbToLinear(i / 255.0) * LinearColorUtil.LINEAR_MAX);
+            assertEquals(expected, LinearColorUtil.toLinear(i), "toLinear(" + i + ")");
+        }
+    }
+
+    @Test
+    void roundTripIsExact() {
+        for (int i = 0; i < 256; i++)
+            assertEquals(i, LinearColorUtil.fromLinear(LinearColorUtil.toLinear(i)), "round trip of " + i);
+    }
+
+    @Test
+    void fromLinearMatchesInverseTransferFunction() {
+        for (int l = 0; l <= LinearColorUtil.LINEAR_MAX; l++) {
+            int expected = (int) Math.round(linearToSrgb((double) l / LinearColorUtil.LINEAR_MAX) * 255);
+            int actual = LinearColorUtil.fromLinear(l);
+            int linear = l;
+            assertTrue(Math.abs(expected - actual) <= 1,
+                    () -> "fromLinear(" + linear + "): expected " + expected + ", got " + actual);
+        }
+    }
+
+    @Test
+    void mixLinearMatchesReference() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int c1 = rand.nextInt(), c2 = rand.nextInt();
+            float bias = rand.nextFloat();
+            int actual = LinearColorUtil.mixLinear(c1, c2, bias);
+            for (int shift = 0; shift < 24; shift += 8) {
+                int expected = referenceMix((c1 >> shift) & 0xFF, (c2 >> shift) & 0xFF, bias);
+                int comp = (actual >> shift) & 0xFF;
+                assertTrue(Math.abs(expected - comp) <= 1, () -> String.format("mixLinear(%08X, %08X, %s) = %08X",
+                        c1, c2, bias, actual));
+            }
+            assertEquals(0xFF, actual >>> 24);
+        }
+    }
+
+    @Test
+    void multiplyLinearMatchesReference() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int c = rand.nextInt();
+            float multiplier = rand.nextFloat();
+            int actual = LinearColorUtil.multiplyLinear(c, multiplier);
+            for (int shift = 0; shift < 24; shift += 8) {
+                int expected = referenceMultiply((c >> shift) & 0xFF, multiplier);
+                int comp = (actual >> shift) & 0xFF;
+                assertTrue(Math.abs(expected - comp) <= 1, () -> String.format("multiplyLinear(%08X, %s) = %08X",
+                        c, multiplier, actual));
+            }
+            assertEquals(c >>> 24, actual >>> 24);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package adudecalledleo.lionutils.color;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks {@link Palette} lookups against a linear scan of every entry.
+ */
+class PaletteTest {
+    private static final int ITERATIONS = 200_000;
+
+    private static int sq(int v) {
+        return v * v;
+    }
+
+    private static int linearNearest(int[] colors, int color) {
+        int r = (color >> 16) & 0xFF, g = (color >> 8) & 0xFF, b = color & 0xFF;
+        int best = 0, bestDist = Integer.MAX_VALUE;
+        for (int i = 0; i < colors.length; i++) {
+            int c = colors[i];
+            int dist = sq(((c >> 16) & 0xFF) - r) + sq(((c >> 8) & 0xFF) - g) + sq((c & 0xFF) - b);
+            if (dist < bestDist) {
+                best = i;
+                bestDist = dist;
+            }
+        }
+        return best;
+    }
+
+    private static void assertMatchesLinearScan(int[] colors, Random rand) {
+        Palette palette = Palette.of(colors);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int color = rand.nextInt();
+            int expected = linearNearest(colors, color);
+            assertEquals(expected, palette.nearest(color),
+                    () -> String.format("nearest(%08X) in a palette of %d colors", color, colors.length));
+        }
+    }
+
+    @Test
+    void nearestMatchesLinearScan() {
+        Random rand = new Random(0x5EED);
+        for (int size : new int[] { 1, 2, 16, 64, 256 }) {
+            int[] colors = new int[size];
+            for (int i = 0; i < size; i++)
+                colors[i] = rand.nextInt();
+            assertMatchesLinearScan(colors, rand);
+        }
+    }
+
+    @Test
+    void nearestMatchesLinearScanForClusteredColors() {
+        // many entries in few cells, and large empty regions, stress the candidate lists
+        Random rand = new Random(0x5EED);
+        int[] colors = new int[256];
+        for (int i = 0; i < colors.length; i++) {
+            int base = (i % 4) * 0x3F3F3F;
+            colors[i] = base + ColorUtil.pack(rand.nextInt(12), rand.nextInt(12), rand.nextInt(12), 0);
+        }
+        assertMatchesLinearScan(colors, rand);
+    }
+
+    @Test
+    void nearestPrefersLowestIndexOnTies() {
+        Palette palette = Palette.of(0xFF000000, 0xFF020202, 0xFF000000);
+        assertEquals(0, palette.nearest(0xFF000000));
+        assertEquals(0, palette.nearest(0xFF010101));
+        assertEquals(1, palette.nearest(0xFF020202));
+    }
+
+    @Test
+    void nearestIgnoresAlpha() {
+        Random rand = new Random(0x5EED);
+        int[] colors = new int[32];
+        for (int i = 0; i < colors.length; i++)
+            colors[i] = rand.nextInt();
+        Palette palette = Palette.of(colors);
+        for (int i = 0; i < ITERATIONS; i++) {
+            int color = rand.nextInt();
+            assertEquals(palette.nearest(color), palette.nearest(color ^ 0xFF000000));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package adudecalledleo.lionutils.internal.serialize;
+
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link BlockPosSetCodec} round-trips sets of positions in both formats.
+ */
+class BlockPosSetCodecTest {
+    private static final int MIN_XZ = -(1 << 25), MAX_XZ = (1 << 25) - 1;
+    private static final int MIN_Y = -(1 << 11), MAX_Y = (1 << 11) - 1;
+
+    private static long[] decode(byte[] data) {
+        long[][] out = { new long[16] };
+        int[] size = { 0 };
+        int visited = BlockPosSetCodec.decode(data, pos -> {
+            if (size[0] == out[0].length)
+                out[0] = Arrays.copyOf(out[0], size[0] * 2);
+            out[0][size[0]++] = pos;
+        });
+        assertEquals(size[0], visited, "reported position count");
+        return Arrays.copyOf(out[0], size[0]);
+    }
+
+    private static long[] distinctSorted(long[] posLongs) {
+        return Arrays.stream(posLongs).distinct().sorted().toArray();
+    }
+
+    private static void assertRoundTrip(long[] posLongs) {
+        long[] expected = distinctSorted(posLongs);
+        for (boolean runLength : new boolean[] { false, true }) {
+            byte[] data = BlockPosSetCodec.encode(posLongs, posLongs.length, runLength);
+            long[] actual = decode(data);
+            assertEquals(expected.length, actual.length, () -> "decoded size, runLength = " + runLength);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual, "decoded positions, runLength = " + runLength);
+        }
+    }
+
+    @Test
+    void roundTripsEmptySet() {
+        assertRoundTrip(new long[0]);
+        assertEquals(0, decode(BlockPosSetCodec.encode(new long[0], 0, true)).length);
+    }
+
+    @Test
+    void roundTripsRandomSets() {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < 200; i++) {
+            long[] posLongs = new long[1 + rand.nextInt(2000)];
+            // mostly nearby positions, with some duplicates and some far away ones
+            for (int j = 0; j < posLongs.length; j++) {
+                if (j > 0 && rand.nextInt(10) == 0)
+                    posLongs[j] = posLongs[rand.nextInt(j)];
+                else if (rand.nextInt(20) == 0)
+                    posLongs[j] = BlockPos.asLong(MIN_XZ + rand.nextInt(MAX_XZ - MIN_XZ + 1),
+                            MIN_Y + rand.nextInt(MAX_Y - MIN_Y + 1), MIN_XZ + rand.nextInt(MAX_XZ - MIN_XZ + 1));
+                else
+                    posLongs[j] = BlockPos.asLong(rand.nextInt(64) - 32, rand.nextInt(256), rand.nextInt(64) - 32);
+            }
+            assertRoundTrip(posLongs);
+        }
+    }
+
+    @Test
+    void roundTripsExtremeCoordinates() {
+        int[] xz = { MIN_XZ, MIN_XZ + 1, -1, 0, 1, MAX_XZ - 1, MAX_XZ };
+        int[] y = { MIN_Y, -1, 0, 1, 255, MAX_Y };
+        long[] posLongs = new long[xz.length * y.length * xz.length];
+        int i = 0;
+        for (int px : xz) {
+            for (int py : y) {
+                for (int pz : xz)
+                    posLongs[i++] = BlockPos.asLong(px, py, pz);
+            }
+        }
+        assertRoundTrip(posLongs);
+    }
+
+    @Test
+    void runLengthFormatShrinksFilledVolumes() {
+        long[] posLongs = new long[16 * 16 * 16];
+        int i = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++)
+                    posLongs[i++] = BlockPos.asLong(x - 8, y + 60, z - 8);
+            }
+        }
+        assertRoundTrip(posLongs);
+        int plain = BlockPosSetCodec.encode(posLongs, posLongs.length, false).length;
+        int runLength = BlockPosSetCodec.encode(posLongs, posLongs.length, true).length;
+        assertTrue(runLength < plain / 2, () -> "run-length size " + runLength + " vs plain size " + plain);
+    }
+
+    @Test
+    void rejectsRunsLongerThanRemainingCount() {
+        // 2 positions, but the first run claims 5 more positions after the first one
+        byte[] data = { BlockPosSetCodec.FORMAT_DELTA_RLE, 2, 1, 5 };
+        int[] visited = { 0 };
+        assertThrows(IllegalArgumentException.class, () -> BlockPosSetCodec.decode(data, pos -> visited[0]++));
+        assertTrue(visited[0] <= 2, () -> "visited " + visited[0] + " positions of 2");
+        // a huge run must be rejected up front, not visited
+        byte[] huge = { BlockPosSetCodec.FORMAT_DELTA_RLE, 1, 1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1 };
+        assertThrows(IllegalArgumentException.class, () -> BlockPosSetCodec.decode(huge, pos -> { }));
+    }
+
+    @Test
+    void rejectsTruncatedData() {
+        long[] posLongs = new long[100];
+        for (int i = 0; i < posLongs.length; i++)
+            posLongs[i] = BlockPos.asLong(i * 3, 64, -i);
+        for (boolean runLength : new boolean[] { false, true }) {
+            byte[] data = BlockPosSetCodec.encode(posLongs, posLongs.length, runLength);
+            for (int length = 1; length < data.length; length++) {
+                byte[] truncated = Arrays.copyOf(data, length);
+                assertThrows(IllegalArgumentException.class, () -> BlockPosSetCodec.decode(truncated, pos -> { }),
+                        "truncated to " + length + " of " + data.length + " bytes, runLength = " + runLength);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package adudecalledleo.lionutils.item;
+
+import adudecalledleo.lionutils.serialize.NbtInterner;
+import net.minecraft.Bootstrap;
+import net.minecraft.enchantment.Enchantments;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.text.LiteralText;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which sub-tags stacks built with an {@link NbtInterner} share.
+ */
+class ItemStackBuilderTest {
+    @BeforeAll
+    static void bootstrap() {
+        // items and enchantments live in the registries
+        Bootstrap.initialize();
+    }
+
+    private static ListTag getList(ItemStack stack, String key) {
+        CompoundTag tag = stack.getTag();
+        assertNotNull(tag, "stack has no tag");
+        assertTrue(tag.contains(key, 9), () -> "stack has no \"" + key + "\" list");
+        return (ListTag) tag.get(key);
+    }
+
+    private static void assertElementsShared(ListTag list1, ListTag list2) {
+        assertNotSame(list1, list2, "each stack should have its own list");
+        assertEquals(list1, list2);
+        for (int i = 0; i < list1.size(); i++)
+            assertSame(list1.get(i), list2.get(i), "element " + i + " should be shared");
+    }
+
+    @Test
+    void enchantmentEntriesAreSharedButListsAreNot() {
+        NbtInterner interner = NbtInterner.create();
+        ItemStackBuilder builder = ItemStackBuilder.create()
+                .setItem(Items.DIAMOND_SWORD)
+                .addEnchantment(Enchantments.SHARPNESS, 3)
+                .addEnchantment(Enchantments.UNBREAKING, 2)
+                .setInterner(interner);
+        ItemStack stack1 = builder.build(), stack2 = builder.build();
+        ListTag enchantments1 = getList(stack1, "Enchantments"), enchantments2 = getList(stack2, "Enchantments");
+        assertElementsShared(enchantments1, enchantments2);
+        // modifying one stack's list in place (like enchanting does) must not affect the other stack
+        stack1.addEnchantment(Enchantments.MENDING, 1);
+        assertEquals(3, enchantments1.size());
+        assertEquals(2, enchantments2.size());
+    }
+
+    @Test
+    void loreListsAreShared() {
+        NbtInterner interner = NbtInterner.create();
+        ItemStackBuilder builder = ItemStackBuilder.create()
+                .setItem(Items.STICK)
+                .addLore(new LiteralText("first"), new LiteralText("second"))
+                .setInterner(interner);
+        ItemStack stack1 = builder.build(), stack2 = builder.build();
+        assertSame(stack1.getSubTag("display").get("Lore"), stack2.getSubTag("display").get("Lore"));
+    }
+
+    @Test
+    void bookPagesAreSharedButListsAreNot() {
+        NbtInterner interner = NbtInterner.create();
+        BookBuilder builder = BookBuilder.create("author", "title")
+                .addPage(new LiteralText("page 1"))
+                .addPage(new LiteralText("page 2"))
+                .setInterner(interner);
+        assertElementsShared(getList(builder.build(), "pages"), getList(builder.build(), "pages"));
+    }
+
+    @Test
+    void stacksWithoutInternerShareNothing() {
+        ItemStackBuilder builder = ItemStackBuilder.create()
+                .setItem(Items.DIAMOND_SWORD)
+                .addEnchantment(Enchantments.SHARPNESS, 3);
+        ListTag enchantments1 = getList(builder.build(), "Enchantments");
+        ListTag enchantments2 = getList(builder.build(), "Enchantments");
+        assertNotSame(enchantments1.get(0), enchantments2.get(0));
+    }
+}
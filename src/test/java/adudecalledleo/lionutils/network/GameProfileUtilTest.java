@@ -0,0 +1,213 @@
+package adudecalledleo.lionutils.network;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.GameProfileRepository;
+import com.mojang.authlib.minecraft.MinecraftSessionService;
+import net.minecraft.util.UserCache;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how {@link GameProfileUtil} shares fetches and reports failures, using a stub session service.
+ */
+class GameProfileUtilTest {
+    private static final long TIMEOUT_SECONDS = 10;
+    // every test uses its own UUIDs, since fetched profiles stay cached between tests
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    @TempDir
+    static Path tempDir;
+
+    @BeforeAll
+    static void setUp() {
+        // the stubs are proxies, so they don't depend on which methods this authlib version has
+        GameProfileRepository repository = stub(GameProfileRepository.class, (name, args) -> null);
+        GameProfileUtil.setUserCache(new UserCache(repository, tempDir.resolve("usercache.json").toFile()));
+    }
+
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class)
+                        return method.invoke(handler, args);
+                    return handler.apply(method.getName(), args);
+                }));
+    }
+
+    private interface ProfileFiller {
+        GameProfile fill(GameProfile profile) throws Exception;
+    }
+
+    private static void setSessionService(ProfileFiller filler) {
+        GameProfileUtil.setSessionService(stub(MinecraftSessionService.class, (name, args) -> {
+            if (!"fillProfileProperties".equals(name))
+                throw new UnsupportedOperationException(name);
+            try {
+                return filler.fill((GameProfile) args[0]);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }));
+    }
+
+    private static UUID nextId() {
+        return new UUID(0x6C696F6EL, NEXT_ID.incrementAndGet());
+    }
+
+    private static String nameOf(UUID id) {
+        return "Player" + id.getLeastSignificantBits();
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, () -> thread.getName() + " never started waiting");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void concurrentRequestsShareOneFetch() throws Exception {
+        UUID id = nextId();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1), release = new CountDownLatch(1);
+        setSessionService(profile -> {
+            calls.incrementAndGet();
+            entered.countDown();
+            release.await();
+            return new GameProfile(profile.getId(), nameOf(profile.getId()));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<GameProfile> first = executor.submit(() -> GameProfileUtil.getGameProfile(id, null));
+            assertTrue(entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "fetch never started");
+            // the second request has to be waiting for the first one's fetch, not fetching on its own
+            AtomicReference<Thread> secondThread = new AtomicReference<>();
+            Future<GameProfile> second = executor.submit(() -> {
+                secondThread.set(Thread.currentThread());
+                return GameProfileUtil.getGameProfile(id, null);
+            });
+            CompletableFuture<GameProfile> async = GameProfileUtil.getGameProfileAsync(id, null);
+            while (secondThread.get() == null)
+                Thread.sleep(1);
+            awaitWaiting(secondThread.get());
+            assertFalse(async.isDone(), "async request should wait for the fetch in flight");
+            release.countDown();
+            GameProfile profile = first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(nameOf(id), profile.getName());
+            assertSame(profile, second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertSame(profile, async.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(1, calls.get(), "session service calls");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersSeeTheFetchFailureItself() throws Exception {
+        UUID id = nextId();
+        CountDownLatch entered = new CountDownLatch(1), release = new CountDownLatch(1);
+        setSessionService(profile -> {
+            entered.countDown();
+            release.await();
+            throw new IllegalStateException("session service is down");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<GameProfile> first = executor.submit(() -> GameProfileUtil.getGameProfile(id, null));
+            assertTrue(entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "fetch never started");
+            AtomicReference<Thread> secondThread = new AtomicReference<>();
+            Future<GameProfile> second = executor.submit(() -> {
+                secondThread.set(Thread.currentThread());
+                return GameProfileUtil.getGameProfile(id, null);
+            });
+            while (secondThread.get() == null)
+                Thread.sleep(1);
+            awaitWaiting(secondThread.get());
+            release.countDown();
+            for (Future<GameProfile> future : Arrays.asList(first, second)) {
+                ExecutionException e = assertThrows(ExecutionException.class,
+                        () -> future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                assertEquals(IllegalStateException.class, e.getCause().getClass());
+                assertEquals("session service is down", e.getCause().getMessage());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void callbackReceivesFetchedName() throws Exception {
+        UUID id = nextId();
+        CountDownLatch release = new CountDownLatch(1);
+        setSessionService(profile -> {
+            release.await();
+            return new GameProfile(profile.getId(), nameOf(profile.getId()));
+        });
+        CompletableFuture<String> callbackName = new CompletableFuture<>();
+        try {
+            assertEquals(GameProfileUtil.PLAYER_NAME_UNKNOWN, GameProfileUtil.getPlayerName(id, callbackName::complete));
+            assertFalse(callbackName.isDone(), "callback invoked before the fetch finished");
+        } finally {
+            release.countDown();
+        }
+        assertEquals(nameOf(id), callbackName.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        // now that it's cached, the name is returned right away and the callback isn't invoked
+        assertEquals(nameOf(id), GameProfileUtil.getPlayerName(id, name -> fail("callback invoked for cached name")));
+    }
+
+    @Test
+    void rejectedFetchMapsToUnknownName() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        setSessionService(profile -> {
+            release.await();
+            return new GameProfile(profile.getId(), nameOf(profile.getId()));
+        });
+        List<CompletableFuture<GameProfile>> futures = new ArrayList<>();
+        try {
+            // keep the threads busy and fill up the queue
+            int limit = GameProfileUtil.ASYNC_THREAD_COUNT + GameProfileUtil.ASYNC_QUEUE_CAPACITY + 1;
+            CompletableFuture<GameProfile> rejected = null;
+            for (int i = 0; i < limit && rejected == null; i++) {
+                CompletableFuture<GameProfile> future = GameProfileUtil.getGameProfileAsync(nextId(), null);
+                if (future.isCompletedExceptionally())
+                    rejected = future;
+                else
+                    futures.add(future);
+            }
+            assertNotNull(rejected, "no fetch was rejected");
+            CompletableFuture<GameProfile> rejectedFuture = rejected;
+            ExecutionException e = assertThrows(ExecutionException.class, rejectedFuture::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException, () -> "cause was " + e.getCause());
+
+            List<String> callbackNames = new ArrayList<>();
+            assertEquals(GameProfileUtil.PLAYER_NAME_UNKNOWN, GameProfileUtil.getPlayerName(nextId(), callbackNames::add));
+            assertEquals(1, callbackNames.size(), "callback invocations");
+            assertEquals(GameProfileUtil.PLAYER_NAME_UNKNOWN, callbackNames.get(0));
+            assertEquals(GameProfileUtil.PLAYER_NAME_UNKNOWN,
+                    GameProfileUtil.getPlayerNameAsync(nextId()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        for (CompletableFuture<GameProfile> future : futures)
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
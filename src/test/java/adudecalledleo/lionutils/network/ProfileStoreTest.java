@@ -0,0 +1,284 @@
+package adudecalledleo.lionutils.network;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link ProfileStore} keeps profiles across reopening, and recovers from damaged files.
+ */
+class ProfileStoreTest {
+    // the names are all 4 bytes long and the test profiles have no textures, so every record is the same size:
+    //  length, UUID, then the name, textures and signature lengths and the name itself
+    private static final int LOG_HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 4 + 16 + 4 + 4 + 4 + 4;
+
+    @TempDir
+    Path dir;
+
+    private static UUID id(int i) {
+        return new UUID(0x70726F66L ^ i * 0x9E3779B97F4A7C15L, i);
+    }
+
+    private static GameProfile profile(int i) {
+        return new GameProfile(id(i), String.format("p%03d", i % 1000));
+    }
+
+    private static void putAll(ProfileStore store, int from, int to) throws IOException {
+        for (int i = from; i < to; i++)
+            store.put(profile(i));
+    }
+
+    private static void assertStored(ProfileStore store, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            GameProfile profile = store.get(id(i));
+            assertNotNull(profile, "profile " + i + " is missing");
+            assertEquals(profile(i).getName(), profile.getName(), "name of profile " + i);
+        }
+    }
+
+    private Path log() {
+        return dir.resolve("profiles.log");
+    }
+
+    private List<Path> indexFiles() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "profiles-*.idx")) {
+            stream.forEach(paths::add);
+        }
+        return paths;
+    }
+
+    private void writeToLog(long position, ByteBuffer buf) throws IOException {
+        try (FileChannel channel = FileChannel.open(log(), StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining())
+                position += channel.write(buf, position);
+        }
+    }
+
+    @Test
+    void roundTripsProfiles() throws IOException {
+        GameProfile withTextures = new GameProfile(id(1), "Steve");
+        withTextures.getProperties().put("textures", new Property("textures", "dGV4dHVyZXM=", "c2lnbmF0dXJl"));
+        GameProfile unsigned = new GameProfile(id(2), "\u00C5lex\u2603");
+        unsigned.getProperties().put("textures", new Property("textures", "dW5zaWduZWQ="));
+        GameProfile plain = new GameProfile(id(3), "Notch");
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertNull(store.get(id(1)));
+            store.put(withTextures);
+            store.put(unsigned);
+            store.put(plain);
+            assertEquals(3, store.size());
+            assertRoundTripped(withTextures, store.get(id(1)));
+            assertRoundTripped(unsigned, store.get(id(2)));
+            assertRoundTripped(plain, store.get(id(3)));
+            assertNull(store.get(id(4)));
+            assertThrows(IllegalArgumentException.class, () -> store.put(new GameProfile(id(4), null)));
+        }
+    }
+
+    private static void assertRoundTripped(GameProfile expected, GameProfile actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        Property expectedTextures = null, actualTextures = null;
+        for (Property property : expected.getProperties().get("textures"))
+            expectedTextures = property;
+        for (Property property : actual.getProperties().get("textures"))
+            actualTextures = property;
+        if (expectedTextures == null) {
+            assertNull(actualTextures);
+            return;
+        }
+        assertNotNull(actualTextures);
+        assertEquals(expectedTextures.getValue(), actualTextures.getValue());
+        assertEquals(expectedTextures.getSignature(), actualTextures.getSignature());
+    }
+
+    @Test
+    void keepsProfilesAcrossReopening() throws IOException {
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 100);
+            // storing a player again replaces their profile
+            store.put(new GameProfile(id(7), "newn"));
+        }
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(100, store.size());
+            assertStored(store, 0, 7);
+            assertEquals("newn", store.get(id(7)).getName());
+            assertStored(store, 8, 100);
+        }
+    }
+
+    @Test
+    void growsIndex() throws IOException {
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 100);
+            assertEquals(1, indexFiles().size());
+            assertEquals("profiles-1024.idx", indexFiles().get(0).getFileName().toString());
+            // the index is kept at most half full, so this grows it twice
+            putAll(store, 100, 2000);
+            assertEquals(2000, store.size());
+            assertStored(store, 0, 2000);
+            assertEquals(1, indexFiles().size(), "old index files should be deleted");
+            assertEquals("profiles-4096.idx", indexFiles().get(0).getFileName().toString());
+        }
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(2000, store.size());
+            assertStored(store, 0, 2000);
+        }
+    }
+
+    @Test
+    void removesBadEntriesWithoutLosingOthers() throws IOException {
+        final int count = 500;
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, count);
+        }
+        // make every third record hold a different player, so the index entries pointing to them are bad
+        Random rand = new Random(0x5EED);
+        List<Integer> bad = new ArrayList<>();
+        for (int i = 0; i < count; i += 3) {
+            ByteBuffer buf = ByteBuffer.allocate(16).putLong(rand.nextLong()).putLong(rand.nextLong());
+            buf.flip();
+            writeToLog(LOG_HEADER_SIZE + (long) i * RECORD_SIZE + 4, buf);
+            bad.add(i);
+        }
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(count, store.size());
+            // removing an entry shifts the entries after it in the same probe sequence back,
+            //  which must keep every other entry reachable
+            for (int i : bad) {
+                assertNull(store.get(id(i)), "profile " + i + " should be gone");
+                assertNull(store.get(id(i)), "profile " + i + " should stay gone");
+            }
+            assertEquals(count - bad.size(), store.size());
+            for (int i = 0; i < count; i++) {
+                if (i % 3 != 0)
+                    assertStored(store, i, i + 1);
+            }
+            // removed players can be stored again
+            store.put(profile(0));
+            assertStored(store, 0, 1);
+        }
+    }
+
+    @Test
+    void dropsTornRecordAtEndOfLog() throws IOException {
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 10);
+        }
+        long size = Files.size(log());
+        // a record that claims to be longer than what was written, like after a crash mid-write
+        writeToLog(size, ByteBuffer.wrap(new byte[] { 0, 0, 0, 50, 1, 2, 3 }));
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(size, Files.size(log()), "torn record should be truncated");
+            assertEquals(10, store.size());
+            assertStored(store, 0, 10);
+            store.put(profile(10));
+        }
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertStored(store, 0, 11);
+        }
+    }
+
+    @Test
+    void skipsInvalidRecordsWhenScanning() throws IOException {
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 10);
+        }
+        long size = Files.size(log());
+        // a complete record without a name, followed by a valid one
+        ByteBuffer buf = ByteBuffer.allocate(2 * RECORD_SIZE);
+        buf.putInt(RECORD_SIZE - 4).putLong(id(10).getMostSignificantBits()).putLong(id(10).getLeastSignificantBits())
+                .putInt(-1).putInt(-1).putInt(-1).putInt(0);
+        buf.putInt(RECORD_SIZE - 4).putLong(id(11).getMostSignificantBits()).putLong(id(11).getLeastSignificantBits())
+                .putInt(4).put(new byte[] { 'p', '0', '1', '1' }).putInt(-1).putInt(-1);
+        buf.flip();
+        writeToLog(size, buf);
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertNull(store.get(id(10)));
+            assertStored(store, 11, 12);
+            assertStored(store, 0, 10);
+            assertEquals(11, store.size());
+        }
+    }
+
+    @Test
+    void catchesUpWithStaleIndex() throws IOException {
+        Path staleIndex = dir.resolve("stale.idx.bak");
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 50);
+            store.sync();
+            Files.copy(indexFiles().get(0), staleIndex);
+            putAll(store, 50, 100);
+        }
+        // the index was last updated before the later profiles were appended, like after a crash
+        Files.copy(staleIndex, indexFiles().get(0), StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(staleIndex);
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(100, store.size());
+            assertStored(store, 0, 100);
+        }
+    }
+
+    @Test
+    void rebuildsIndexAheadOfLog() throws IOException {
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 100);
+        }
+        // the log lost its last records (for example, it was restored from an older backup than the index)
+        try (FileChannel channel = FileChannel.open(log(), StandardOpenOption.WRITE)) {
+            channel.truncate(LOG_HEADER_SIZE + 60L * RECORD_SIZE);
+        }
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(60, store.size());
+            assertStored(store, 0, 60);
+            for (int i = 60; i < 100; i++)
+                assertNull(store.get(id(i)), "profile " + i + " was lost with the log");
+        }
+    }
+
+    @Test
+    void rebuildsMismatchedIndex() throws IOException {
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            putAll(store, 0, 100);
+        }
+        // an index file that isn't an index at all
+        Path index = indexFiles().get(0);
+        long size = Files.size(index);
+        Files.write(index, new byte[(int) size]);
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(100, store.size());
+            assertStored(store, 0, 100);
+        }
+        // an index file of the wrong size
+        Files.write(indexFiles().get(0), new byte[] { 1, 2, 3 });
+        try (ProfileStore store = ProfileStore.open(dir)) {
+            assertEquals(100, store.size());
+            assertStored(store, 0, 100);
+        }
+    }
+
+    @Test
+    void refusesToOpenOtherFiles() throws IOException {
+        Files.write(log(), new byte[] { 'n', 'o', 't', ' ', 'a', ' ', 'l', 'o', 'g' });
+        assertThrows(IOException.class, () -> ProfileStore.open(dir));
+    }
+}
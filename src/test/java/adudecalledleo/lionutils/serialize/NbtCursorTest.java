@@ -0,0 +1,248 @@
+package adudecalledleo.lionutils.serialize;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.nbt.*;
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link NbtCursor} against the getters of the {@link CompoundTag} it reads a serialized copy of.
+ */
+class NbtCursorTest {
+    private enum Shape {
+        SQUARE, CIRCLE, TRIANGLE
+    }
+
+    // names that take 1, 2 and 3 bytes per char in modified UTF-8, NUL (2 bytes), and surrogate pairs (3 bytes each)
+    private static final String[] NAMES = {
+            "", "plain", "\0", "a\0b", "caf\u00E9", "\u65E5\u672C\u8A9E", "\uD83D\uDE00", "x\uD83D\uDE00y\u00E9\0"
+    };
+
+    private static byte[] serialize(CompoundTag tag) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(out)) {
+            NbtIo.write(tag, data);
+        }
+        return out.toByteArray();
+    }
+
+    private static NbtCursor cursor(CompoundTag tag) throws IOException {
+        NbtCursor cursor = NbtCursor.of(ByteBuffer.wrap(serialize(tag)));
+        assertNotNull(cursor);
+        return cursor;
+    }
+
+    private static CompoundTag scalars() {
+        CompoundTag tag = new CompoundTag();
+        tag.putByte("byte", (byte) -7);
+        tag.putShort("short", (short) -1234);
+        tag.putInt("int", 0x12345678);
+        // rounds differently when converted to float directly and through double
+        tag.putLong("long", (1L << 60) + (1L << 36) + 1);
+        tag.putFloat("float", -2.5F);
+        tag.putDouble("double", 1234.75);
+        tag.putString("string", "hello \0 w\u00F6rld \uD83D\uDE00");
+        tag.putByteArray("byteArray", new byte[] { 1, 2, 3 });
+        tag.putIntArray("intArray", new int[] { 4, 5, 6, 7 });
+        tag.putLongArray("longArray", new long[] { 8, -9 });
+        tag.putLong("pos", new BlockPos(-30000000, 255, 12345).asLong());
+        tag.putString("shape", Shape.CIRCLE.name());
+        tag.putString("notShape", "HEXAGON");
+        return tag;
+    }
+
+    private static NbtCursor enter(NbtCursor cursor, String key) {
+        cursor.reset();
+        assertTrue(cursor.enter(key), () -> "couldn't enter \"" + key + "\"");
+        return cursor;
+    }
+
+    @Test
+    void readsValuesLikeCompoundTag() throws IOException {
+        CompoundTag tag = scalars();
+        NbtCursor cursor = cursor(tag);
+        for (String key : tag.getKeys()) {
+            enter(cursor, key);
+            assertEquals(tag.getType(key), cursor.getType(), () -> "type of " + key);
+            assertEquals(tag.getLong(key), cursor.getLong(), () -> "long value of " + key);
+            assertEquals(tag.getInt(key), cursor.getInt(), () -> "int value of " + key);
+            assertEquals(tag.getByte(key), cursor.getByte(), () -> "byte value of " + key);
+            assertEquals(tag.getDouble(key), cursor.getDouble(), () -> "double value of " + key);
+            assertEquals(tag.getFloat(key), cursor.getFloat(), () -> "float value of " + key);
+            assertEquals(tag.getString(key), cursor.getString(), () -> "string value of " + key);
+            assertTrue(cursor.stringEquals(tag.getString(key)) == (tag.getType(key) == 8), () -> "stringEquals of " + key);
+            cursor.reset();
+            for (int type = 0; type <= 12; type++)
+                assertEquals(tag.contains(key, type), cursor.contains(key, type), "contains " + key + " as " + type);
+            assertEquals(tag.contains(key, 99), cursor.contains(key, 99), "contains " + key + " as a number");
+        }
+        assertEquals(3, enter(cursor, "byteArray").getLength());
+        assertEquals(4, enter(cursor, "intArray").getLength());
+        assertEquals(2, enter(cursor, "longArray").getLength());
+        assertEquals(-9, cursor.getLongArrayElement(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getLongArrayElement(2));
+        assertEquals(BlockPos.fromLong(tag.getLong("pos")), enter(cursor, "pos").getBlockPos());
+        assertNull(enter(cursor, "int").getBlockPos());
+        assertEquals(Shape.CIRCLE, enter(cursor, "shape").getEnum(Shape.class));
+        assertNull(enter(cursor, "notShape").getEnum(Shape.class));
+        // missing keys don't move the cursor
+        cursor.reset();
+        assertFalse(cursor.enter("missing"));
+        assertFalse(cursor.enter("strin"));
+        assertFalse(cursor.enter("string2"));
+        assertEquals(10, cursor.getType());
+        assertTrue(cursor.enter("long"));
+    }
+
+    @Test
+    void matchesModifiedUtf8Names() throws IOException {
+        CompoundTag tag = new CompoundTag();
+        for (int i = 0; i < NAMES.length; i++) {
+            tag.putInt(NAMES[i], i);
+            tag.putString("value" + i, NAMES[i]);
+        }
+        NbtCursor cursor = cursor(tag);
+        for (int i = 0; i < NAMES.length; i++) {
+            assertEquals(i, enter(cursor, NAMES[i]).getInt(), "value of name " + i);
+            enter(cursor, "value" + i);
+            assertEquals(NAMES[i], cursor.getString(), "string " + i);
+            assertTrue(cursor.stringEquals(NAMES[i]), "stringEquals " + i);
+        }
+        // prefixes, extensions and lone halves of surrogate pairs are different names
+        cursor.reset();
+        for (String name : new String[] { "a", "a\0", "a\0bc", "caf", "cafe", "\uD83D", "\uDE00", "\u0100" })
+            assertFalse(cursor.contains(name, 3), () -> "found \"" + name + "\"");
+        enter(cursor, "value" + 6);
+        assertFalse(cursor.stringEquals("\uD83D"));
+        assertFalse(cursor.stringEquals("\uD83D\uDE00\0"));
+    }
+
+    private static CompoundTag nested(Random rand, int depth) {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("depth", depth);
+        tag.putString("id", "minecraft:item_" + rand.nextInt(100));
+        tag.putLongArray("longs", rand.longs(rand.nextInt(5)).toArray());
+        if (depth > 0) {
+            tag.put("child", nested(rand, depth - 1));
+            ListTag children = new ListTag();
+            for (int i = rand.nextInt(3); i >= 0; i--)
+                children.add(nested(rand, depth - 1));
+            tag.put("children", children);
+            // a list of lists, each holding a different element type
+            ListTag lists = new ListTag();
+            ListTag strings = new ListTag();
+            strings.add(StringTag.of("\u00E9\0"));
+            strings.add(StringTag.of(""));
+            lists.add(strings);
+            ListTag ints = new ListTag();
+            ints.add(new IntArrayTag(new int[] { 1, 2 }));
+            lists.add(ints);
+            lists.add(new ListTag());
+            tag.put("lists", lists);
+        }
+        return tag;
+    }
+
+    private static void assertSameStructure(CompoundTag tag, NbtCursor cursor) {
+        assertEquals(tag.getInt("depth"), enter(cursor, "depth").getInt());
+        assertTrue(enter(cursor, "id").stringEquals(tag.getString("id")));
+        long[] longs = tag.getLongArray("longs");
+        assertEquals(longs.length, enter(cursor, "longs").getLength());
+        for (int i = 0; i < longs.length; i++)
+            assertEquals(longs[i], cursor.getLongArrayElement(i));
+        if (!tag.contains("children"))
+            return;
+        ListTag children = tag.getList("children", 10);
+        assertEquals(children.size(), enter(cursor, "children").getLength());
+        int i = 0;
+        for (NbtCursor child : cursor.elements())
+            assertSameStructure(children.getCompound(i++), child);
+        assertEquals(children.size(), i);
+        // entering an element skips the ones before it
+        for (i = 0; i < children.size(); i++) {
+            enter(cursor, "children");
+            assertTrue(cursor.enterElement(i));
+            assertTrue(cursor.enter("depth"));
+            assertEquals(children.getCompound(i).getInt("depth"), cursor.getInt());
+        }
+        enter(cursor, "children");
+        assertFalse(cursor.enterElement(children.size()));
+        assertFalse(cursor.enterElement(-1));
+        assertEquals(9, cursor.getType());
+        enter(cursor, "lists");
+        assertTrue(cursor.enterElement(0) && cursor.enterElement(1));
+        assertEquals("", cursor.getString());
+        enter(cursor, "lists");
+        assertTrue(cursor.enterElement(2));
+        assertEquals(0, cursor.getLength());
+    }
+
+    @Test
+    void skipsNestedListsAndCompounds() throws IOException {
+        Random rand = new Random(0x5EED);
+        for (int i = 0; i < 20; i++) {
+            CompoundTag tag = new CompoundTag();
+            // everything before "target" has to be skipped to find it
+            tag.put("before", nested(rand, 4));
+            tag.putString("target", "found");
+            tag.put("after", nested(rand, 2));
+            NbtCursor cursor = cursor(tag);
+            assertEquals("found", enter(cursor, "target").getString());
+            assertSameStructure(tag.getCompound("before"), enter(cursor, "before"));
+            cursor.reset();
+            assertTrue(cursor.enter("before", "child", "child", "depth"));
+            assertEquals(2, cursor.getInt());
+            cursor.reset();
+            // a path that doesn't exist doesn't move the cursor
+            assertFalse(cursor.enter("after", "child", "child", "child"));
+            assertEquals(10, cursor.getType());
+            assertTrue(cursor.enter("after", "child", "child", "depth"));
+            assertEquals(0, cursor.getInt());
+        }
+    }
+
+    @Test
+    void readsFromByteBufs() throws IOException {
+        CompoundTag tag = scalars();
+        tag.put("nested", nested(new Random(0x5EED), 3));
+        byte[] data = serialize(tag);
+        // a heap buffer with some bytes before the tag
+        ByteBuf heap = Unpooled.buffer();
+        heap.writeBytes(new byte[] { 42, 42, 42 });
+        heap.writeBytes(data);
+        heap.readerIndex(3);
+        assertReadsTag(tag, heap);
+        assertEquals(3, heap.readerIndex());
+        // a composite buffer, split at every position
+        for (int split = 1; split < data.length; split += 7) {
+            ByteBuf composite = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(data, 0, split),
+                    Unpooled.wrappedBuffer(data, split, data.length - split));
+            assertTrue(composite.nioBufferCount() > 1);
+            assertReadsTag(tag, composite);
+            assertEquals(0, composite.readerIndex());
+        }
+        // an empty tag, as written for null tags
+        assertNull(NbtCursor.of(Unpooled.wrappedBuffer(new byte[] { 0 })));
+    }
+
+    private static void assertReadsTag(CompoundTag tag, ByteBuf buf) {
+        NbtCursor cursor = NbtCursor.of(buf);
+        assertNotNull(cursor);
+        for (String key : tag.getKeys()) {
+            enter(cursor, key);
+            assertEquals(tag.getType(key), cursor.getType(), () -> "type of " + key);
+            assertEquals(tag.getLong(key), cursor.getLong(), () -> "long value of " + key);
+            assertEquals(tag.getString(key), cursor.getString(), () -> "string value of " + key);
+        }
+        assertSameStructure(tag.getCompound("nested"), enter(cursor, "nested"));
+    }
+}
@@ -0,0 +1,47 @@
+package adudecalledleo.lionutils.serialize;
+
+import net.minecraft.nbt.CompoundTag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which tags {@link NbtUtil} accepts as {@code enum} ordinals.
+ */
+class NbtUtilTest {
+    private enum Shape {
+        SQUARE, CIRCLE, TRIANGLE
+    }
+
+    @Test
+    void roundTripsEnumOrdinals() {
+        CompoundTag tag = new CompoundTag();
+        for (Shape shape : Shape.values()) {
+            NbtUtil.putEnumOrdinal(tag, "shape", shape);
+            assertTrue(NbtUtil.containsEnumOrdinal(Shape.class, tag, "shape"));
+            assertEquals(shape, NbtUtil.getEnumOrdinal(Shape.class, tag, "shape"));
+        }
+    }
+
+    @Test
+    void acceptsIntegralTagsOnly() {
+        CompoundTag tag = new CompoundTag();
+        tag.putByte("byte", (byte) 1);
+        tag.putShort("short", (short) 1);
+        tag.putInt("int", 1);
+        tag.putLong("long", 1);
+        tag.putFloat("float", 1.5F);
+        tag.putDouble("double", 1.0);
+        tag.putString("string", "1");
+        tag.putInt("outOfRange", Shape.values().length);
+        tag.putInt("negative", -1);
+        for (String key : new String[] { "byte", "short", "int" }) {
+            assertTrue(NbtUtil.containsEnumOrdinal(Shape.class, tag, key), key);
+            assertEquals(Shape.CIRCLE, NbtUtil.getEnumOrdinal(Shape.class, tag, key), key);
+        }
+        for (String key : new String[] { "long", "float", "double", "string", "outOfRange", "negative", "missing" }) {
+            assertFalse(NbtUtil.containsEnumOrdinal(Shape.class, tag, key), key);
+            assertNull(NbtUtil.getEnumOrdinal(Shape.class, tag, key), key);
+        }
+    }
+}